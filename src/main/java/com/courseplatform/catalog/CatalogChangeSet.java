@@ -0,0 +1,50 @@
+package com.courseplatform.catalog;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Ids of the courses, topics and subtopics touched by one or more
+ * transactions. Instances are not thread-safe; callers either confine them to
+ * a single transaction or guard them externally.
+ */
+public class CatalogChangeSet {
+
+    private final Set<String> courseIds = new LinkedHashSet<>();
+    private final Set<String> topicIds = new LinkedHashSet<>();
+    private final Set<String> subtopicIds = new LinkedHashSet<>();
+
+    public void addCourse(String courseId) {
+        courseIds.add(courseId);
+    }
+
+    public void addTopic(String topicId) {
+        topicIds.add(topicId);
+    }
+
+    public void addSubtopic(String subtopicId) {
+        subtopicIds.add(subtopicId);
+    }
+
+    public void addAll(CatalogChangedEvent event) {
+        courseIds.addAll(event.getCourseIds());
+        topicIds.addAll(event.getTopicIds());
+        subtopicIds.addAll(event.getSubtopicIds());
+    }
+
+    public boolean isEmpty() {
+        return courseIds.isEmpty() && topicIds.isEmpty() && subtopicIds.isEmpty();
+    }
+
+    /**
+     * Returns the accumulated ids as an immutable event and clears this set.
+     */
+    public CatalogChangedEvent drain() {
+        CatalogChangedEvent event = new CatalogChangedEvent(Set.copyOf(courseIds), Set.copyOf(topicIds),
+                Set.copyOf(subtopicIds));
+        courseIds.clear();
+        topicIds.clear();
+        subtopicIds.clear();
+        return event;
+    }
+}
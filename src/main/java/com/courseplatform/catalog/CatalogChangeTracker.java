@@ -0,0 +1,61 @@
+package com.courseplatform.catalog;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+
+/**
+ * Collects catalog changes for the current transaction and publishes a single
+ * {@link CatalogChangedEvent} after it commits. Rolled back changes are
+ * discarded, so listeners never observe uncommitted data.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogChangeTracker {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public void courseChanged(String courseId) {
+        record(changes -> changes.addCourse(courseId));
+    }
+
+    public void topicChanged(String topicId) {
+        record(changes -> changes.addTopic(topicId));
+    }
+
+    public void subtopicChanged(String subtopicId) {
+        record(changes -> changes.addSubtopic(subtopicId));
+    }
+
+    private void record(Consumer<CatalogChangeSet> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            CatalogChangeSet changes = new CatalogChangeSet();
+            change.accept(changes);
+            eventPublisher.publishEvent(changes.drain());
+            return;
+        }
+
+        CatalogChangeSet changes = (CatalogChangeSet) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            CatalogChangeSet transactionChanges = new CatalogChangeSet();
+            TransactionSynchronizationManager.bindResource(this, transactionChanges);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eventPublisher.publishEvent(transactionChanges.drain());
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CatalogChangeTracker.this);
+                }
+            });
+            changes = transactionChanges;
+        }
+        change.accept(changes);
+    }
+}
@@ -0,0 +1,19 @@
+package com.courseplatform.catalog;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * Published once per committed transaction that inserted, updated or deleted
+ * catalog entities. Only ids are carried; listeners load whatever state they
+ * need, and a missing row means the entity was deleted.
+ */
+@Getter
+@AllArgsConstructor
+public class CatalogChangedEvent {
+    private final Set<String> courseIds;
+    private final Set<String> topicIds;
+    private final Set<String> subtopicIds;
+}
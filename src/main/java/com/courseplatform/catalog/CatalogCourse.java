@@ -0,0 +1,83 @@
+package com.courseplatform.catalog;
+
+import com.courseplatform.dto.CourseDetailResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * One course as held by a {@link CatalogSnapshot}: the mapped detail, its
+ * rendered full and outline bodies, and each subtopic's content as UTF-8
+ * bytes for the per-subtopic content endpoint.
+ */
+public final class CatalogCourse {
+
+    private final CourseDetailResponse detail;
+    private final RenderedResponse full;
+    private final RenderedResponse outline;
+    private final Map<String, byte[]> contents;
+
+    private CatalogCourse(CourseDetailResponse detail, RenderedResponse full, RenderedResponse outline,
+            Map<String, byte[]> contents) {
+        this.detail = detail;
+        this.full = full;
+        this.outline = outline;
+        this.contents = contents;
+    }
+
+    static CatalogCourse render(ObjectMapper objectMapper, CourseDetailResponse detail) {
+        Map<String, byte[]> contents = new HashMap<>();
+        for (CourseDetailResponse.TopicDto topic : detail.getTopics()) {
+            for (CourseDetailResponse.SubtopicDto subtopic : topic.getSubtopics()) {
+                String content = subtopic.getContent() != null ? subtopic.getContent() : "";
+                contents.put(subtopic.getId(), content.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return new CatalogCourse(detail,
+                RenderedResponse.render(objectMapper, detail),
+                RenderedResponse.render(objectMapper, toOutline(detail)),
+                Map.copyOf(contents));
+    }
+
+    public RenderedResponse getFull() {
+        return full;
+    }
+
+    public RenderedResponse getOutline() {
+        return outline;
+    }
+
+    CourseDetailResponse detail() {
+        return detail;
+    }
+
+    Map<String, byte[]> contents() {
+        return contents;
+    }
+
+    private static CourseDetailResponse toOutline(CourseDetailResponse detail) {
+        List<CourseDetailResponse.TopicDto> topics = detail.getTopics().stream()
+                .map(topic -> CourseDetailResponse.TopicDto.builder()
+                        .id(topic.getId())
+                        .title(topic.getTitle())
+                        .subtopics(topic.getSubtopics().stream()
+                                .map(subtopic -> CourseDetailResponse.SubtopicDto.builder()
+                                        .id(subtopic.getId())
+                                        .title(subtopic.getTitle())
+                                        .build())
+                                .collect(Collectors.toUnmodifiableList()))
+                        .build())
+                .collect(Collectors.toUnmodifiableList());
+
+        return CourseDetailResponse.builder()
+                .id(detail.getId())
+                .title(detail.getTitle())
+                .description(detail.getDescription())
+                .topics(topics)
+                .build();
+    }
+}
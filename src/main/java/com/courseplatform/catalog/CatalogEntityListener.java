@@ -0,0 +1,34 @@
+package com.courseplatform.catalog;
+
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.entity.Topic;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA lifecycle hook registered on the catalog entities. Hibernate obtains the
+ * instance through Spring, so the tracker is injected as usual.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogEntityListener {
+
+    private final CatalogChangeTracker changeTracker;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (entity instanceof Course course) {
+            changeTracker.courseChanged(course.getId());
+        } else if (entity instanceof Topic topic) {
+            changeTracker.topicChanged(topic.getId());
+        } else if (entity instanceof Subtopic subtopic) {
+            changeTracker.subtopicChanged(subtopic.getId());
+        }
+    }
+}
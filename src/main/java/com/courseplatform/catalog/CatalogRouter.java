@@ -0,0 +1,70 @@
+package com.courseplatform.catalog;
+
+import com.courseplatform.entity.Course;
+import com.courseplatform.repository.CatalogTitle;
+import com.courseplatform.repository.CourseRepository;
+import com.courseplatform.repository.SubtopicRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Resolves catalog ownership for the progress and enrollment paths from the
+ * current snapshot's {@link CatalogRoutes}, without touching the database.
+ * Only ids created after the snapshot was published fall through to a
+ * query, and only until the next snapshot flush picks them up.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogRouter {
+
+    private final CatalogSnapshotManager catalogSnapshotManager;
+    private final CourseRepository courseRepository;
+    private final SubtopicRepository subtopicRepository;
+
+    public Optional<String> findCourseOfSubtopic(String subtopicId) {
+        Optional<String> courseId = catalogSnapshotManager.current().getRoutes().findCourseOfSubtopic(subtopicId);
+        if (courseId.isPresent()) {
+            return courseId;
+        }
+        return subtopicRepository.findTitlesByIdIn(Set.of(subtopicId)).stream()
+                .map(CatalogTitle::getCourseId)
+                .findFirst();
+    }
+
+    /**
+     * Owning course of each subtopic that exists; unknown ids are absent from
+     * the result.
+     */
+    public Map<String, String> findCoursesOfSubtopics(Collection<String> subtopicIds) {
+        CatalogRoutes routes = catalogSnapshotManager.current().getRoutes();
+        Map<String, String> courses = new HashMap<>();
+        Set<String> unresolved = new HashSet<>();
+        for (String subtopicId : subtopicIds) {
+            routes.findCourseOfSubtopic(subtopicId).ifPresentOrElse(
+                    courseId -> courses.put(subtopicId, courseId),
+                    () -> unresolved.add(subtopicId));
+        }
+        if (!unresolved.isEmpty()) {
+            for (CatalogTitle title : subtopicRepository.findTitlesByIdIn(unresolved)) {
+                courses.put(title.getId(), title.getCourseId());
+            }
+        }
+        return courses;
+    }
+
+    public Optional<String> findCourseTitle(String courseId) {
+        Optional<String> title = catalogSnapshotManager.current().findCourse(courseId)
+                .map(course -> course.detail().getTitle());
+        if (title.isPresent()) {
+            return title;
+        }
+        return courseRepository.findById(courseId).map(Course::getTitle);
+    }
+}
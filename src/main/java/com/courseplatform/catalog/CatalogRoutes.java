@@ -0,0 +1,86 @@
+package com.courseplatform.catalog;
+
+import com.courseplatform.dto.CourseDetailResponse;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Owning course of each topic and subtopic of a {@link CatalogSnapshot}, held
+ * in sorted parallel arrays. Each id is stored once; a child refers to its
+ * course by array index, so a lookup is a binary search plus an int read,
+ * with no hashing, boxing or per-entry objects.
+ */
+public final class CatalogRoutes {
+
+    private final String[] courseIds;
+    private final String[] topicIds;
+    private final int[] topicCourses;
+    private final String[] subtopicIds;
+    private final int[] subtopicCourses;
+
+    private CatalogRoutes(String[] courseIds, String[] topicIds, int[] topicCourses, String[] subtopicIds,
+            int[] subtopicCourses) {
+        this.courseIds = courseIds;
+        this.topicIds = topicIds;
+        this.topicCourses = topicCourses;
+        this.subtopicIds = subtopicIds;
+        this.subtopicCourses = subtopicCourses;
+    }
+
+    static CatalogRoutes build(Collection<CourseDetailResponse> courses) {
+        int topicCount = 0;
+        int subtopicCount = 0;
+        for (CourseDetailResponse course : courses) {
+            for (CourseDetailResponse.TopicDto topic : course.getTopics()) {
+                topicCount++;
+                subtopicCount += topic.getSubtopics().size();
+            }
+        }
+
+        String[] courseIds = courses.stream().map(CourseDetailResponse::getId).sorted().toArray(String[]::new);
+        String[] topicIds = new String[topicCount];
+        String[] subtopicIds = new String[subtopicCount];
+        int t = 0;
+        int s = 0;
+        for (CourseDetailResponse course : courses) {
+            for (CourseDetailResponse.TopicDto topic : course.getTopics()) {
+                topicIds[t++] = topic.getId();
+                for (CourseDetailResponse.SubtopicDto subtopic : topic.getSubtopics()) {
+                    subtopicIds[s++] = subtopic.getId();
+                }
+            }
+        }
+        Arrays.sort(topicIds);
+        Arrays.sort(subtopicIds);
+
+        // Course indexes can only be resolved once the course array is sorted
+        int[] topicCourses = new int[topicCount];
+        int[] subtopicCourses = new int[subtopicCount];
+        for (CourseDetailResponse course : courses) {
+            int courseIndex = Arrays.binarySearch(courseIds, course.getId());
+            for (CourseDetailResponse.TopicDto topic : course.getTopics()) {
+                topicCourses[Arrays.binarySearch(topicIds, topic.getId())] = courseIndex;
+                for (CourseDetailResponse.SubtopicDto subtopic : topic.getSubtopics()) {
+                    subtopicCourses[Arrays.binarySearch(subtopicIds, subtopic.getId())] = courseIndex;
+                }
+            }
+        }
+        return new CatalogRoutes(courseIds, topicIds, topicCourses, subtopicIds, subtopicCourses);
+    }
+
+    public Optional<String> findCourseOfSubtopic(String subtopicId) {
+        int subtopic = indexOf(subtopicIds, subtopicId);
+        return subtopic < 0 ? Optional.empty() : Optional.of(courseIds[subtopicCourses[subtopic]]);
+    }
+
+    public Optional<String> findCourseOfTopic(String topicId) {
+        int topic = indexOf(topicIds, topicId);
+        return topic < 0 ? Optional.empty() : Optional.of(courseIds[topicCourses[topic]]);
+    }
+
+    private static int indexOf(String[] ids, String id) {
+        return id == null ? -1 : Arrays.binarySearch(ids, id);
+    }
+}
@@ -0,0 +1,55 @@
+package com.courseplatform.catalog;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable, fully rendered view of the public catalog. A snapshot is built
+ * off the request path and swapped in as a whole, so readers never see a
+ * partially updated catalog and never touch the database.
+ */
+public final class CatalogSnapshot {
+
+    private final long version;
+    private final RenderedResponse courseList;
+    private final Map<String, CatalogCourse> courses;
+    private final CatalogRoutes routes;
+    private final Map<String, byte[]> subtopicContents;
+
+    CatalogSnapshot(long version, RenderedResponse courseList, Map<String, CatalogCourse> courses,
+            CatalogRoutes routes, Map<String, byte[]> subtopicContents) {
+        this.version = version;
+        this.courseList = courseList;
+        this.courses = courses;
+        this.routes = routes;
+        this.subtopicContents = subtopicContents;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public RenderedResponse getCourseList() {
+        return courseList;
+    }
+
+    public Optional<CatalogCourse> findCourse(String courseId) {
+        return Optional.ofNullable(courses.get(courseId));
+    }
+
+    public CatalogRoutes getRoutes() {
+        return routes;
+    }
+
+    /**
+     * UTF-8 content of a subtopic. The array is shared between requests and
+     * must not be modified.
+     */
+    public Optional<byte[]> findSubtopicContent(String subtopicId) {
+        return Optional.ofNullable(subtopicContents.get(subtopicId));
+    }
+
+    Map<String, CatalogCourse> courses() {
+        return courses;
+    }
+}
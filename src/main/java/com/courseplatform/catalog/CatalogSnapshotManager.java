@@ -0,0 +1,226 @@
+package com.courseplatform.catalog;
+
+import com.courseplatform.dto.CourseDetailResponse;
+import com.courseplatform.dto.CourseListResponse;
+import com.courseplatform.dto.CoursesResponse;
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Topic;
+import com.courseplatform.repository.CatalogTitle;
+import com.courseplatform.repository.CourseRepository;
+import com.courseplatform.repository.SubtopicRepository;
+import com.courseplatform.repository.TopicRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Builds and publishes {@link CatalogSnapshot}s. The full catalog is mapped
+ * once the application is ready; after that, committed changes are batched
+ * and only the affected courses are re-read and re-mapped, while unchanged
+ * course details are carried over to the next snapshot as-is.
+ */
+@Component
+@Slf4j
+public class CatalogSnapshotManager {
+
+    private final CourseRepository courseRepository;
+    private final TopicRepository topicRepository;
+    private final SubtopicRepository subtopicRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final AtomicLong versions = new AtomicLong();
+    private final CatalogChangeSet pending = new CatalogChangeSet();
+
+    private volatile CatalogSnapshot current;
+
+    public CatalogSnapshotManager(CourseRepository courseRepository, TopicRepository topicRepository,
+            SubtopicRepository subtopicRepository, ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher) {
+        this.courseRepository = courseRepository;
+        this.topicRepository = topicRepository;
+        this.subtopicRepository = subtopicRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.eventPublisher = eventPublisher;
+    }
+
+    public CatalogSnapshot current() {
+        CatalogSnapshot snapshot = current;
+        if (snapshot == null) {
+            // Only reachable if a request arrives before the application is ready
+            rebuild();
+            snapshot = current;
+        }
+        return snapshot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long startedAt = System.nanoTime();
+        current = transactionTemplate.execute(status -> {
+            Map<String, CourseDetailResponse> details = new HashMap<>();
+            for (Course course : courseRepository.findAllWithTopics()) {
+                details.put(course.getId(), mapToCourseDetailResponse(course));
+            }
+            return publish(null, details);
+        });
+        log.info("Catalog snapshot built: {} courses in {} ms", current.courses().size(),
+                (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        synchronized (pending) {
+            pending.addAll(event);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.snapshot.flush-interval-ms:500}")
+    public synchronized void flush() {
+        CatalogChangedEvent batch;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending.drain();
+        }
+
+        Set<String> affected = new HashSet<>();
+        try {
+            CatalogSnapshot previous = current();
+            current = transactionTemplate.execute(status -> {
+                affected.addAll(affectedCourses(previous, batch));
+                Map<String, CourseDetailResponse> changed = new HashMap<>();
+                // Courses that are no longer found were deleted
+                affected.forEach(courseId -> changed.put(courseId, null));
+                if (!affected.isEmpty()) {
+                    for (Course course : courseRepository.findWithTopicsByIdIn(affected)) {
+                        changed.put(course.getId(), mapToCourseDetailResponse(course));
+                    }
+                }
+                return publish(previous, changed);
+            });
+        } catch (RuntimeException e) {
+            onCatalogChanged(batch);
+            log.error("Failed to refresh catalog snapshot, will retry: {}", e.getMessage());
+            return;
+        }
+        if (!affected.isEmpty()) {
+            eventPublisher.publishEvent(new CatalogSnapshotPublishedEvent(Set.copyOf(affected)));
+        }
+    }
+
+    /**
+     * Courses whose detail has to be re-mapped: changed courses plus the
+     * courses owning changed topics and subtopics, both before the change
+     * (from the previous snapshot) and after it (from the database).
+     */
+    private Set<String> affectedCourses(CatalogSnapshot previous, CatalogChangedEvent batch) {
+        Set<String> affected = new HashSet<>(batch.getCourseIds());
+        CatalogRoutes routes = previous.getRoutes();
+        addOwners(affected, batch.getTopicIds(), routes::findCourseOfTopic, topicRepository::findTitlesByIdIn);
+        addOwners(affected, batch.getSubtopicIds(), routes::findCourseOfSubtopic,
+                subtopicRepository::findTitlesByIdIn);
+        return affected;
+    }
+
+    private void addOwners(Set<String> affected, Set<String> ids, Function<String, Optional<String>> previousOwner,
+            Function<Set<String>, List<CatalogTitle>> loader) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        for (String id : ids) {
+            previousOwner.apply(id).ifPresent(affected::add);
+        }
+        for (CatalogTitle title : loader.apply(ids)) {
+            affected.add(title.getCourseId());
+        }
+    }
+
+    /**
+     * Publishes a snapshot made of {@code base} with {@code changed} applied;
+     * a {@code null} detail removes the course. Only changed courses are
+     * rendered again. The list view always comes from one aggregate query,
+     * which is cheap compared to mapping details.
+     */
+    private CatalogSnapshot publish(CatalogSnapshot base, Map<String, CourseDetailResponse> changed) {
+        Map<String, CatalogCourse> courses = new HashMap<>(base != null ? base.courses() : Map.of());
+        changed.forEach((courseId, detail) -> {
+            if (detail != null) {
+                courses.put(courseId, CatalogCourse.render(objectMapper, detail));
+            } else {
+                courses.remove(courseId);
+            }
+        });
+
+        List<CourseDetailResponse> details = new ArrayList<>(courses.size());
+        Map<String, byte[]> subtopicContents = new HashMap<>();
+        for (CatalogCourse course : courses.values()) {
+            details.add(course.detail());
+            subtopicContents.putAll(course.contents());
+        }
+
+        List<CourseListResponse> courseList = courseRepository.findAllSummaries().stream()
+                .map(summary -> CourseListResponse.builder()
+                        .id(summary.getId())
+                        .title(summary.getTitle())
+                        .description(summary.getDescription())
+                        .topicCount((int) summary.getTopicCount())
+                        .subtopicCount((int) summary.getSubtopicCount())
+                        .build())
+                .collect(Collectors.toUnmodifiableList());
+
+        return new CatalogSnapshot(versions.incrementAndGet(),
+                RenderedResponse.render(objectMapper, CoursesResponse.builder().courses(courseList).build()),
+                Map.copyOf(courses), CatalogRoutes.build(details), Map.copyOf(subtopicContents));
+    }
+
+    private CourseDetailResponse mapToCourseDetailResponse(Course course) {
+        List<CourseDetailResponse.TopicDto> topics = course.getTopics().stream()
+                .map(this::mapToTopicDto)
+                .collect(Collectors.toUnmodifiableList());
+
+        return CourseDetailResponse.builder()
+                .id(course.getId())
+                .title(course.getTitle())
+                .description(course.getDescription())
+                .topics(topics)
+                .build();
+    }
+
+    private CourseDetailResponse.TopicDto mapToTopicDto(Topic topic) {
+        List<CourseDetailResponse.SubtopicDto> subtopics = topic.getSubtopics().stream()
+                .map(subtopic -> CourseDetailResponse.SubtopicDto.builder()
+                        .id(subtopic.getId())
+                        .title(subtopic.getTitle())
+                        .content(subtopic.getContent())
+                        .build())
+                .collect(Collectors.toUnmodifiableList());
+
+        return CourseDetailResponse.TopicDto.builder()
+                .id(topic.getId())
+                .title(topic.getTitle())
+                .subtopics(subtopics)
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+package com.courseplatform.catalog;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * Published by {@link CatalogSnapshotManager} on its flush thread after a
+ * snapshot with applied changes went live. Carries every course affected by
+ * the batch, including the former owners of moved or deleted topics and
+ * subtopics; ids of deleted courses are included too.
+ */
+@Getter
+@AllArgsConstructor
+public class CatalogSnapshotPublishedEvent {
+    private final Set<String> courseIds;
+}
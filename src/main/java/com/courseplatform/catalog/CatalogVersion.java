@@ -0,0 +1,26 @@
+package com.courseplatform.catalog;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of the committed catalog, bumped after every transaction
+ * that changed a course, topic or subtopic. Anything derived from catalog data
+ * can be keyed by this number instead of being evicted explicitly.
+ */
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong(1);
+
+    public long current() {
+        return version.get();
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        version.incrementAndGet();
+    }
+}
@@ -0,0 +1,69 @@
+package com.courseplatform.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A response body serialized once to UTF-8 JSON and gzip, with a strong
+ * entity tag per encoding. The tag is a digest of the JSON bytes, so it stays
+ * the same across snapshot swaps and restarts for as long as the content does.
+ */
+public final class RenderedResponse {
+
+    private final byte[] json;
+    private final byte[] gzip;
+    private final String etag;
+    private final String gzipEtag;
+
+    private RenderedResponse(byte[] json, byte[] gzip, String digest) {
+        this.json = json;
+        this.gzip = gzip;
+        this.etag = "\"" + digest + "\"";
+        this.gzipEtag = "\"" + digest + "-gzip\"";
+    }
+
+    public static RenderedResponse render(ObjectMapper objectMapper, Object body) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to render " + body.getClass().getSimpleName(), e);
+        }
+        return new RenderedResponse(json, gzip(json), digest(json));
+    }
+
+    public byte[] getBody(boolean gzipped) {
+        return gzipped ? gzip : json;
+    }
+
+    public String getEtag(boolean gzipped) {
+        return gzipped ? gzipEtag : etag;
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static String digest(byte[] bytes) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.courseplatform.catalog;
+
+import com.courseplatform.repository.CourseRepository;
+import com.courseplatform.repository.EnrollmentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps {@code Course.subtopicCount}, and the {@code completedCount} of each
+ * enrollment in a course, in step with the catalog. Deleting a subtopic also
+ * deletes its progress rows, so both counters of a course can change at once.
+ * All courses have their subtopics counted once at startup; after that, only
+ * the courses affected by a change are recounted. Those come from the
+ * {@link CatalogSnapshotManager}, which already resolves the former owners of
+ * deleted topics and subtopics, and the recount runs on its flush thread
+ * rather than the request thread that committed the change. Counters that
+ * are already right are not rewritten.
+ */
+@Component
+@RequiredArgsConstructor
+public class SubtopicCountMaintainer {
+
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void recountAll() {
+        courseRepository.recountSubtopics();
+    }
+
+    @EventListener
+    @Transactional
+    public void onSnapshotPublished(CatalogSnapshotPublishedEvent event) {
+        courseRepository.recountSubtopics(event.getCourseIds());
+        enrollmentRepository.recountCompletedByCourseIdIn(event.getCourseIds());
+    }
+}
@@ -1,13 +1,21 @@
 package com.courseplatform.controller;
 
+import com.courseplatform.catalog.RenderedResponse;
 import com.courseplatform.dto.CourseDetailResponse;
 import com.courseplatform.dto.CoursesResponse;
+import com.courseplatform.exception.BadRequestException;
 import com.courseplatform.service.CourseService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,24 +27,112 @@ public class CourseController {
 
     private final CourseService courseService;
 
-    @GetMapping
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "List all courses", description = "Get a list of all available courses with topic and subtopic counts")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved courses")
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved courses",
+                    content = @Content(schema = @Schema(implementation = CoursesResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Course list has not changed since the given ETag")
     })
-    public ResponseEntity<CoursesResponse> getAllCourses() {
-        CoursesResponse response = courseService.getAllCourses();
-        return ResponseEntity.ok(response);
+    public ResponseEntity<byte[]> getAllCourses(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return write(courseService.getAllCourses(), ifNoneMatch, acceptEncoding);
     }
 
-    @GetMapping("/{id}")
-    @Operation(summary = "Get course by ID", description = "Get detailed course information including all topics, subtopics, and content")
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get course by ID", description = "Get detailed course information including all topics, subtopics, and content. " +
+            "With fields=outline, subtopic content is left out; fetch it per subtopic from /api/subtopics/{id}/content.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved course"),
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved course",
+                    content = @Content(schema = @Schema(implementation = CourseDetailResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Course has not changed since the given ETag"),
+            @ApiResponse(responseCode = "400", description = "Unsupported fields value"),
             @ApiResponse(responseCode = "404", description = "Course not found")
     })
-    public ResponseEntity<CourseDetailResponse> getCourseById(@PathVariable String id) {
-        CourseDetailResponse response = courseService.getCourseById(id);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<byte[]> getCourseById(
+            @PathVariable String id,
+            @Parameter(description = "Set to 'outline' to omit subtopic content")
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        RenderedResponse rendered;
+        if (fields == null) {
+            rendered = courseService.getCourseById(id);
+        } else if (fields.equals("outline")) {
+            rendered = courseService.getCourseOutline(id);
+        } else {
+            throw new BadRequestException("Unsupported fields value '" + fields + "'; expected 'outline'");
+        }
+        return write(rendered, ifNoneMatch, acceptEncoding);
+    }
+
+    private ResponseEntity<byte[]> write(RenderedResponse rendered, String ifNoneMatch, String acceptEncoding) {
+        boolean gzipped = acceptsGzip(acceptEncoding);
+        String etag = rendered.getEtag(gzipped);
+
+        if (matchesEtag(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzipped) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(rendered.getBody(gzipped));
+    }
+
+    /**
+     * If-None-Match uses weak comparison, so a {@code W/} prefix added by an
+     * intermediary still matches.
+     */
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=") && isZeroWeight(param.substring(2))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isZeroWeight(String qvalue) {
+        try {
+            return Double.parseDouble(qvalue) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
     }
 }
@@ -1,9 +1,11 @@
 package com.courseplatform.controller;
 
 import com.courseplatform.dto.EnrollmentResponse;
+import com.courseplatform.dto.EnrollmentsResponse;
 import com.courseplatform.dto.ProgressResponse;
 import com.courseplatform.service.EnrollmentService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -34,15 +36,32 @@ public class EnrollmentController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @GetMapping("/api/enrollments")
+    @Operation(summary = "List my enrollments", description = "Get every enrollment of the authenticated user, " +
+            "newest first, with its completion percentage")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved enrollments"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token missing or invalid")
+    })
+    public ResponseEntity<EnrollmentsResponse> getEnrollments() {
+        return ResponseEntity.ok(enrollmentService.getEnrollments());
+    }
+
     @GetMapping("/api/enrollments/{enrollmentId}/progress")
-    @Operation(summary = "View enrollment progress", description = "Get detailed progress information for a specific enrollment")
+    @Operation(summary = "View enrollment progress", description = "Get progress information for a specific enrollment. " +
+            "Completed items are paged in completion order; pass includeItems=false to get the totals only.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved progress"),
+            @ApiResponse(responseCode = "400", description = "Invalid page or size"),
             @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token missing or invalid"),
             @ApiResponse(responseCode = "404", description = "Enrollment not found")
     })
-    public ResponseEntity<ProgressResponse> getProgress(@PathVariable Long enrollmentId) {
-        ProgressResponse response = enrollmentService.getProgress(enrollmentId);
+    public ResponseEntity<ProgressResponse> getProgress(
+            @PathVariable Long enrollmentId,
+            @Parameter(description = "Include a page of completed items") @RequestParam(defaultValue = "true") boolean includeItems,
+            @Parameter(description = "Zero-based page of completed items") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Completed items per page (1-100)") @RequestParam(defaultValue = "100") int size) {
+        ProgressResponse response = enrollmentService.getProgress(enrollmentId, includeItems, page, size);
         return ResponseEntity.ok(response);
     }
 }
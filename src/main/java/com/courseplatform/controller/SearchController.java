@@ -1,6 +1,7 @@
 package com.courseplatform.controller;
 
 import com.courseplatform.dto.SearchResponse;
+import com.courseplatform.dto.SuggestResponse;
 import com.courseplatform.service.SearchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -20,13 +21,30 @@ public class SearchController {
     private final SearchService searchService;
 
     @GetMapping
-    @Operation(summary = "Search courses and content", description = "Search across course titles, descriptions, topics, subtopics, and content using case-insensitive partial matching")
+    @Operation(summary = "Search courses and content", description = "Search across course titles, descriptions, topics, subtopics, and content. Courses are ranked by relevance and returned one page at a time")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Search completed successfully")
+            @ApiResponse(responseCode = "200", description = "Search completed successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid page, size or cursor")
     })
     public ResponseEntity<SearchResponse> search(
-            @Parameter(description = "Search query", required = true) @RequestParam String q) {
-        SearchResponse response = searchService.search(q);
+            @Parameter(description = "Search query", required = true) @RequestParam String q,
+            @Parameter(description = "Zero-based page number") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Courses per page (1-100)") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "nextCursor from a previous page; takes precedence over page") @RequestParam(required = false) String cursor) {
+        SearchResponse response = searchService.search(q, page, size, cursor);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest titles", description = "Prefix completions of course, topic and subtopic titles for typeahead. Any word of a title can be completed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Suggestions returned"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit")
+    })
+    public ResponseEntity<SuggestResponse> suggest(
+            @Parameter(description = "Prefix typed so far", required = true) @RequestParam String q,
+            @Parameter(description = "Maximum number of suggestions (1-10)") @RequestParam(defaultValue = "10") int limit) {
+        SuggestResponse response = searchService.suggest(q, limit);
         return ResponseEntity.ok(response);
     }
 }
@@ -0,0 +1,45 @@
+package com.courseplatform.controller;
+
+import com.courseplatform.service.CourseService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/api/subtopics")
+@RequiredArgsConstructor
+@Tag(name = "Courses", description = "Public course browsing endpoints")
+public class SubtopicContentController {
+
+    private static final MediaType MARKDOWN = new MediaType("text", "markdown", StandardCharsets.UTF_8);
+
+    private final CourseService courseService;
+
+    @GetMapping("/{subtopicId}/content")
+    @Operation(summary = "Get subtopic content", description = "Get the Markdown content of a single subtopic. Supports byte Range requests.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved content"),
+            @ApiResponse(responseCode = "206", description = "Requested range of the content"),
+            @ApiResponse(responseCode = "404", description = "Subtopic not found"),
+            @ApiResponse(responseCode = "416", description = "Requested range not satisfiable")
+    })
+    public ResponseEntity<Resource> getSubtopicContent(@PathVariable String subtopicId) {
+        // Spring MVC answers Range requests for Resource bodies with 206 and the requested region
+        Resource content = new ByteArrayResource(courseService.getSubtopicContent(subtopicId));
+        return ResponseEntity.ok()
+                .contentType(MARKDOWN)
+                .body(content);
+    }
+}
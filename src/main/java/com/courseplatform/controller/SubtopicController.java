@@ -1,5 +1,7 @@
 package com.courseplatform.controller;
 
+import com.courseplatform.dto.BulkCompletionRequest;
+import com.courseplatform.dto.BulkCompletionResponse;
 import com.courseplatform.dto.SubtopicCompletionResponse;
 import com.courseplatform.service.SubtopicProgressService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -7,6 +9,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -32,4 +35,17 @@ public class SubtopicController {
         SubtopicCompletionResponse response = subtopicProgressService.markSubtopicComplete(subtopicId);
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping("/complete")
+    @Operation(summary = "Mark many subtopics as completed", description = "Mark up to 500 subtopics as completed in one request, e.g. to sync offline progress. " +
+            "Each subtopic gets its own result: COMPLETED, ALREADY_COMPLETED, NOT_FOUND or NOT_ENROLLED.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Per-subtopic results"),
+            @ApiResponse(responseCode = "400", description = "No subtopic ids, or more than 500"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token missing or invalid")
+    })
+    public ResponseEntity<BulkCompletionResponse> markSubtopicsComplete(@Valid @RequestBody BulkCompletionRequest request) {
+        BulkCompletionResponse response = subtopicProgressService.markSubtopicsComplete(request.getSubtopicIds());
+        return ResponseEntity.ok(response);
+    }
 }
@@ -0,0 +1,19 @@
+package com.courseplatform.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCompletionRequest {
+
+    @NotEmpty(message = "At least one subtopic id is required")
+    @Size(max = 500, message = "At most 500 subtopics can be completed per request")
+    private List<String> subtopicIds;
+}
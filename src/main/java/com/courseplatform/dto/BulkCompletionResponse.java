@@ -0,0 +1,35 @@
+package com.courseplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCompletionResponse {
+    private int completed;
+    private List<Item> results;
+
+    public enum Status {
+        COMPLETED,
+        ALREADY_COMPLETED,
+        NOT_FOUND,
+        NOT_ENROLLED
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private String subtopicId;
+        private Status status;
+        private LocalDateTime completedAt;
+    }
+}
@@ -1,5 +1,6 @@
 package com.courseplatform.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -34,6 +35,8 @@ public class CourseDetailResponse {
     public static class SubtopicDto {
         private String id;
         private String title;
+        // Omitted from the outline view, where content is fetched per subtopic
+        @JsonInclude(JsonInclude.Include.NON_NULL)
         private String content;
     }
 }
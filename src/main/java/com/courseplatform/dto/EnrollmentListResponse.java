@@ -0,0 +1,22 @@
+package com.courseplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentListResponse {
+    private Long enrollmentId;
+    private String courseId;
+    private String courseTitle;
+    private LocalDateTime enrolledAt;
+    private int totalSubtopics;
+    private int completedSubtopics;
+    private double completionPercentage;
+}
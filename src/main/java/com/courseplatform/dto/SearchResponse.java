@@ -13,6 +13,10 @@ import java.util.List;
 @AllArgsConstructor
 public class SearchResponse {
     private String query;
+    private Integer page; // null when the page was requested with a cursor
+    private int size;
+    private int totalResults;
+    private String nextCursor; // null on the last page
     private List<SearchResult> results;
 
     @Data
@@ -22,6 +26,8 @@ public class SearchResponse {
     public static class SearchResult {
         private String courseId;
         private String courseTitle;
+        private double score;
+        private int totalMatches; // matches before the per-course cap
         private List<Match> matches;
     }
 
@@ -35,5 +41,15 @@ public class SearchResponse {
         private String subtopicId;
         private String subtopicTitle;
         private String snippet;
+        private List<Highlight> highlights;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Highlight {
+        private int start; // inclusive offset into the snippet
+        private int end; // exclusive offset into the snippet
     }
 }
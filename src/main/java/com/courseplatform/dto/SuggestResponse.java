@@ -0,0 +1,28 @@
+package com.courseplatform.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestResponse {
+    private String prefix;
+    private List<Suggestion> suggestions;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Suggestion {
+        private String type; // "course", "topic", "subtopic"
+        private String id;
+        private String title;
+        private String courseId;
+    }
+}
@@ -0,0 +1,29 @@
+package com.courseplatform.enrollment;
+
+import java.util.Arrays;
+
+/**
+ * One user's enrollments as sorted course ordinals with the enrollment id at
+ * the same position, so a membership check is a binary search over an
+ * {@code int[]}.
+ */
+final class EnrolledCourses {
+
+    static final EnrolledCourses NONE = new EnrolledCourses(new int[0], new long[0]);
+
+    private final int[] courseOrdinals;
+    private final long[] enrollmentIds;
+
+    EnrolledCourses(int[] courseOrdinals, long[] enrollmentIds) {
+        this.courseOrdinals = courseOrdinals;
+        this.enrollmentIds = enrollmentIds;
+    }
+
+    /**
+     * @return the enrollment id, or {@code -1} if not enrolled
+     */
+    long enrollmentId(int courseOrdinal) {
+        int index = Arrays.binarySearch(courseOrdinals, courseOrdinal);
+        return index < 0 ? -1 : enrollmentIds[index];
+    }
+}
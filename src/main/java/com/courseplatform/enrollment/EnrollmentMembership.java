@@ -0,0 +1,233 @@
+package com.courseplatform.enrollment;
+
+import com.courseplatform.repository.EnrolledCourse;
+import com.courseplatform.repository.EnrollmentRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Answers "is this user enrolled in this course, and under which enrollment
+ * id" for the completion and enrollment paths without a query per call.
+ * <p>
+ * Enrollments are never removed, so a positive answer from memory is
+ * final: it comes from a bounded, time-limited cache of each user's
+ * enrollments, held as sorted course ordinals. Ordinals are assigned once per
+ * course id and never reused.
+ * <p>
+ * A negative answer is always confirmed against the database, because the
+ * enrollment may have been made on another instance after this one cached
+ * the user. A Bloom filter over the (user, course) pairs known to this
+ * instance keeps that cheap: when it rules a pair out, the check is a single
+ * point query instead of loading the user's enrollments into the cache.
+ * Pairs confirmed that way are added to the filter. Enrollments made through
+ * {@link #recordEnrollment} are added as soon as their transaction commits.
+ */
+@Component
+@Slf4j
+public class EnrollmentMembership {
+
+    private static final String SELECT_ALL_MEMBERSHIPS = "SELECT user_id, course_id FROM enrollments";
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final long minimumExpectedInsertions;
+    private final double falsePositiveRate;
+
+    private final Map<String, Integer> courseOrdinals = new ConcurrentHashMap<>();
+    private final AtomicInteger nextOrdinal = new AtomicInteger();
+    private final LoadingCache<Long, EnrolledCourses> cache;
+
+    // Null until the first build; while null every lookup starts at the cache
+    private volatile MembershipBloomFilter filter;
+    // Filter being rebuilt, which also receives enrollments committed meanwhile
+    private volatile MembershipBloomFilter building;
+
+    public EnrollmentMembership(EnrollmentRepository enrollmentRepository, JdbcTemplate jdbcTemplate,
+            @Value("${enrollment.membership.cache-size:100000}") long cacheSize,
+            @Value("${enrollment.membership.ttl-seconds:300}") long ttlSeconds,
+            @Value("${enrollment.membership.bloom.expected-insertions:1000000}") long minimumExpectedInsertions,
+            @Value("${enrollment.membership.bloom.false-positive-rate:0.01}") double falsePositiveRate,
+            MeterRegistry meterRegistry) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.minimumExpectedInsertions = minimumExpectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build(userId -> load(enrollmentRepository.findEnrolledCourses(userId)));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "enrollment.memberships");
+    }
+
+    public Optional<Long> findEnrollmentId(Long userId, String courseId) {
+        Optional<Long> enrollmentId = findInMemory(userId, courseId);
+        if (enrollmentId.isPresent()) {
+            return enrollmentId;
+        }
+        enrollmentId = enrollmentRepository.findIdByUserIdAndCourseId(userId, courseId);
+        if (enrollmentId.isPresent()) {
+            // Enrolled elsewhere since this instance last looked
+            remember(userId, courseId);
+            cache.invalidate(userId);
+        }
+        return enrollmentId;
+    }
+
+    /**
+     * Enrollment ids of the courses the user is enrolled in; other course ids
+     * are absent from the result. Any negative answer reloads the user's
+     * enrollments once, however many courses it covers.
+     */
+    public Map<String, Long> findEnrollmentIds(Long userId, Collection<String> courseIds) {
+        Map<String, Long> enrollmentIds = new HashMap<>();
+        List<String> unresolved = new ArrayList<>();
+        for (String courseId : courseIds) {
+            findInMemory(userId, courseId).ifPresentOrElse(
+                    id -> enrollmentIds.put(courseId, id),
+                    () -> unresolved.add(courseId));
+        }
+        if (unresolved.isEmpty()) {
+            return enrollmentIds;
+        }
+
+        cache.invalidate(userId);
+        EnrolledCourses enrolled = cache.get(userId);
+        for (String courseId : unresolved) {
+            long enrollmentId = enrollmentId(enrolled, courseId);
+            if (enrollmentId >= 0) {
+                remember(userId, courseId);
+                enrollmentIds.put(courseId, enrollmentId);
+            }
+        }
+        return enrollmentIds;
+    }
+
+    /**
+     * Makes a new enrollment visible once the current transaction commits,
+     * or right away outside a transaction.
+     */
+    public void recordEnrollment(Long userId, String courseId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(userId, courseId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(userId, courseId);
+            }
+        });
+    }
+
+    /**
+     * Rebuilds the filter from the enrollments table, sized for twice the
+     * current row count, so it keeps its false-positive rate as enrollments
+     * grow and learns enrollments made by other instances in bulk.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${enrollment.membership.bloom.rebuild-interval-ms:600000}",
+            fixedDelayString = "${enrollment.membership.bloom.rebuild-interval-ms:600000}")
+    public synchronized void rebuildFilter() {
+        long startedAt = System.nanoTime();
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM enrollments", Long.class);
+        long count = rows != null ? rows : 0;
+        MembershipBloomFilter next = new MembershipBloomFilter(
+                Math.max(minimumExpectedInsertions, count * 2), falsePositiveRate);
+
+        // Enrollments committed from here on are added by apply(), the rest by the scan
+        building = next;
+        try {
+            jdbcTemplate.query(SELECT_ALL_MEMBERSHIPS,
+                    (RowCallbackHandler) resultSet -> next.put(resultSet.getLong(1), resultSet.getString(2)));
+            filter = next;
+        } finally {
+            building = null;
+        }
+        log.info("Enrollment membership filter built: {} enrollments in {} ms", count,
+                (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    /**
+     * Memory-only answer; empty means "not known to be enrolled", which the
+     * callers confirm against the database.
+     */
+    private Optional<Long> findInMemory(Long userId, String courseId) {
+        MembershipBloomFilter current = filter;
+        if (current != null && !current.mightContain(userId, courseId)) {
+            return Optional.empty();
+        }
+        long enrollmentId = enrollmentId(cache.get(userId), courseId);
+        return enrollmentId < 0 ? Optional.empty() : Optional.of(enrollmentId);
+    }
+
+    // Call after loading the user, which assigned ordinals to all of their courses
+    private long enrollmentId(EnrolledCourses enrolled, String courseId) {
+        Integer ordinal = courseOrdinals.get(courseId);
+        return ordinal == null ? -1 : enrolled.enrollmentId(ordinal);
+    }
+
+    private void apply(Long userId, String courseId) {
+        remember(userId, courseId);
+        cache.invalidate(userId);
+    }
+
+    // Reads building before filter: a rebuild publishes filter before clearing building
+    private void remember(Long userId, String courseId) {
+        MembershipBloomFilter next = building;
+        if (next != null) {
+            next.put(userId, courseId);
+        }
+        MembershipBloomFilter current = filter;
+        if (current != null && current != next) {
+            current.put(userId, courseId);
+        }
+    }
+
+    private EnrolledCourses load(List<EnrolledCourse> enrollments) {
+        if (enrollments.isEmpty()) {
+            return EnrolledCourses.NONE;
+        }
+        // Sort (ordinal, position) pairs packed into longs, then lay both arrays out in that order
+        long[] packed = new long[enrollments.size()];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = (long) ordinalOf(enrollments.get(i).getCourseId()) << 32 | i;
+        }
+        Arrays.sort(packed);
+
+        int[] ordinals = new int[packed.length];
+        long[] enrollmentIds = new long[packed.length];
+        for (int i = 0; i < packed.length; i++) {
+            ordinals[i] = (int) (packed[i] >>> 32);
+            enrollmentIds[i] = enrollments.get((int) packed[i]).getId();
+        }
+        return new EnrolledCourses(ordinals, enrollmentIds);
+    }
+
+    private int ordinalOf(String courseId) {
+        return courseOrdinals.computeIfAbsent(courseId, id -> nextOrdinal.getAndIncrement());
+    }
+}
@@ -1,5 +1,6 @@
 package com.courseplatform.entity;
 
+import com.courseplatform.catalog.CatalogEntityListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -7,6 +8,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(CatalogEntityListener.class)
 @Table(name = "courses")
 @Getter
 @Setter
@@ -25,6 +27,11 @@ public class Course {
     @Column(length = 1000)
     private String description;
     
+    // Maintained by SubtopicCountMaintainer after every catalog change
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private int subtopicCount = 0;
+    
     @OneToMany(mappedBy = "course", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @Builder.Default
     private List<Topic> topics = new ArrayList<>();
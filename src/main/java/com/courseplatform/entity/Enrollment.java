@@ -36,6 +36,11 @@ public class Enrollment {
     @Column(nullable = false)
     private LocalDateTime enrolledAt;
 
+    // Incremented atomically by SubtopicProgressService when a subtopic is first completed
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private int completedCount = 0;
+
     @OneToMany(mappedBy = "enrollment", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<SubtopicProgress> progressRecords = new ArrayList<>();
@@ -1,5 +1,6 @@
 package com.courseplatform.entity;
 
+import com.courseplatform.catalog.CatalogEntityListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
@@ -8,6 +9,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(CatalogEntityListener.class)
 @Table(name = "subtopics")
 @Getter
 @Setter
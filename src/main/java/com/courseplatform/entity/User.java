@@ -28,6 +28,11 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private String password;
 
+    // Embedded in issued tokens; incrementing it revokes every earlier token
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private int tokenVersion = 0;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<Enrollment> enrollments = new ArrayList<>();
@@ -0,0 +1,264 @@
+package com.courseplatform.progress;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Append-only local journal of acknowledged completions, written as numbered
+ * segment files. A segment is rotated out when its entries are handed to a
+ * flush and deleted once that flush has committed, so whatever segments exist
+ * at startup hold exactly the completions that may not have reached the
+ * database. Replaying them is safe because the flush is an idempotent upsert.
+ * <p>
+ * Appends only write; durability comes from {@link #sync}, which group
+ * commits: one caller forces the file for every append made so far while
+ * the others wait for it, so concurrent completions share one fsync.
+ * <p>
+ * Callers serialize everything except {@link #sync}, which may run
+ * concurrently with appends and is serialized with rotation internally.
+ */
+@Slf4j
+class CompletionJournal implements Closeable {
+
+    private static final String PREFIX = "completions-";
+    private static final String SUFFIX = ".log";
+    private static final String DEAD_LETTER = "dead-letter.log";
+
+    private final Path directory;
+    private final boolean fsync;
+    private final List<Path> recoveredSegments;
+
+    private long sequence;
+    private Path currentPath;
+    private FileChannel current;
+    private boolean currentHasAppends;
+
+    private final ReentrantLock syncLock = new ReentrantLock();
+    // Written by the serialized appenders, read by syncing threads
+    private volatile long appended;
+    private volatile long synced;
+
+    CompletionJournal(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                recoveredSegments = files.filter(CompletionJournal::isSegment).sorted().toList();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open completion journal in " + directory, e);
+        }
+        sequence = recoveredSegments.stream().mapToLong(CompletionJournal::sequenceOf).max().orElse(0);
+        openNextSegment();
+    }
+
+    /**
+     * Segments left behind by a previous run, oldest first.
+     */
+    List<Path> recoveredSegments() {
+        return recoveredSegments;
+    }
+
+    /**
+     * Entries of the given segments in order. A final line without its
+     * newline is a write torn by a crash and is dropped, even when the part
+     * that made it to disk would parse.
+     */
+    List<PendingCompletion> read(Collection<Path> segments) {
+        List<PendingCompletion> completions = new ArrayList<>();
+        for (Path segment : segments) {
+            String content;
+            try {
+                content = Files.readString(segment, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read completion journal segment " + segment, e);
+            }
+            int complete = content.lastIndexOf('\n') + 1;
+            if (complete < content.length()) {
+                log.warn("Dropping torn final entry of completion journal segment {}", segment);
+            }
+            for (String line : content.substring(0, complete).split("\n")) {
+                PendingCompletion completion = parse(line);
+                if (completion != null) {
+                    completions.add(completion);
+                } else if (!line.isEmpty()) {
+                    log.warn("Skipping malformed completion journal entry in {}", segment);
+                }
+            }
+        }
+        return completions;
+    }
+
+    /**
+     * Writes the entry without forcing it to disk.
+     *
+     * @return the position to pass to {@link #sync} to make it durable
+     */
+    long append(PendingCompletion completion) {
+        ByteBuffer buffer = ByteBuffer.wrap(format(completion).getBytes(StandardCharsets.UTF_8));
+        try {
+            while (buffer.hasRemaining()) {
+                current.write(buffer);
+            }
+            currentHasAppends = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to completion journal " + currentPath, e);
+        }
+        return ++appended;
+    }
+
+    /**
+     * Returns once the entry at {@code position}, and everything appended
+     * before it, is on disk. A no-op unless fsync is enabled.
+     */
+    void sync(long position) {
+        if (!fsync || synced >= position) {
+            return;
+        }
+        // A ReentrantLock, not synchronized: waiting callers may be virtual threads
+        syncLock.lock();
+        try {
+            if (synced >= position) {
+                return;
+            }
+            // Everything counted here has been written, so one force covers it all
+            long target = appended;
+            current.force(false);
+            synced = target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot sync completion journal " + currentPath, e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Whether the current segment holds entries, i.e. whether a flush has to
+     * rotate it out to cover everything appended so far.
+     */
+    boolean hasUnrotatedAppends() {
+        return currentHasAppends;
+    }
+
+    /**
+     * Closes the current segment and starts a new one.
+     *
+     * @return the closed segment
+     */
+    Path rotate() {
+        syncLock.lock();
+        try {
+            Path closed = currentPath;
+            closeCurrent();
+            // Closing forced the segment, which covers every append so far
+            synced = appended;
+            openNextSegment();
+            return closed;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Keeps completions the database rejects outright in a file that is never
+     * replayed, for an operator to inspect.
+     */
+    void deadLetter(Collection<PendingCompletion> completions) {
+        StringBuilder lines = new StringBuilder();
+        completions.forEach(completion -> lines.append(format(completion)));
+        try {
+            Files.writeString(directory.resolve(DEAD_LETTER), lines, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.error("Cannot write {} rejected completions to the dead-letter file, dropping them: {}",
+                    completions.size(), e.getMessage());
+        }
+    }
+
+    void delete(Collection<Path> segments) {
+        for (Path segment : segments) {
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException e) {
+                // Harmless: the segment is replayed and upserted again on restart
+                log.warn("Cannot delete flushed completion journal segment {}: {}", segment, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        syncLock.lock();
+        try {
+            closeCurrent();
+            synced = appended;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void openNextSegment() {
+        sequence++;
+        currentPath = directory.resolve(String.format("%s%020d%s", PREFIX, sequence, SUFFIX));
+        try {
+            current = FileChannel.open(currentPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create completion journal segment " + currentPath, e);
+        }
+        currentHasAppends = false;
+    }
+
+    private void closeCurrent() {
+        try {
+            current.force(false);
+            current.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close completion journal segment " + currentPath, e);
+        }
+    }
+
+    private static String format(PendingCompletion completion) {
+        return completion.getUserId() + "\t" + completion.getSubtopicId() + "\t"
+                + completion.getEnrollmentId() + "\t" + completion.getCompletedAt() + "\n";
+    }
+
+    private static PendingCompletion parse(String line) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length != 4) {
+            return null;
+        }
+        try {
+            return new PendingCompletion(Long.valueOf(fields[0]), fields[1], Long.valueOf(fields[2]),
+                    LocalDateTime.parse(fields[3]));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
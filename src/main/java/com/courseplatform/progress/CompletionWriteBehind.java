@@ -0,0 +1,257 @@
+package com.courseplatform.progress;
+
+import com.courseplatform.catalog.CatalogRouter;
+import com.courseplatform.enrollment.EnrollmentMembership;
+import com.courseplatform.exception.ForbiddenException;
+import com.courseplatform.exception.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional write-behind path for subtopic completions
+ * ({@code progress.write-behind.enabled=true}).
+ * <p>
+ * A completion is validated against the catalog routes and the
+ * {@link EnrollmentMembership} cache, appended to the {@link CompletionJournal}
+ * and acknowledged.
+ * Queued completions are de-duplicated per user and subtopic and written by a
+ * single flusher thread, either every {@code flush-interval-ms} or as soon as
+ * {@code batch-size} are pending. Each chunk is one multi-row
+ * {@code INSERT ... ON CONFLICT} on {@code (user_id, subtopic_id)} that also
+ * bumps {@code enrollments.completed_count} for rows it newly completed.
+ * <p>
+ * Durability: once acknowledged, a completion is in the journal, and with
+ * {@code fsync=true} it is forced to disk before the acknowledgement. The
+ * fsync happens outside the queue lock and is shared by every completion
+ * appended while it was pending, so a burst costs a few fsyncs rather than
+ * one each. It
+ * survives a process crash and is replayed at the next start. It is lost only
+ * if the local disk is lost before the next flush commits. Until that flush,
+ * progress reads do not show the completion yet.
+ */
+@Component
+@ConditionalOnProperty(name = "progress.write-behind.enabled", havingValue = "true")
+@Slf4j
+public class CompletionWriteBehind {
+
+    private static final Comparator<PendingCompletion> WRITE_ORDER = Comparator
+            .comparing(PendingCompletion::getUserId)
+            .thenComparing(PendingCompletion::getSubtopicId);
+
+    private final CatalogRouter catalogRouter;
+    private final EnrollmentMembership enrollmentMembership;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    private final CompletionJournal journal;
+    private final ScheduledExecutorService flusher;
+
+    private final Object lock = new Object();
+    // Guarded by lock
+    private Map<CompletionKey, PendingCompletion> queue = new LinkedHashMap<>();
+    private final List<Path> unflushedSegments = new ArrayList<>();
+
+    public CompletionWriteBehind(CatalogRouter catalogRouter,
+            EnrollmentMembership enrollmentMembership, JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${progress.write-behind.batch-size:500}") int batchSize,
+            @Value("${progress.write-behind.flush-interval-ms:200}") long flushIntervalMillis,
+            @Value("${progress.write-behind.journal-dir:./data/completion-journal}") Path journalDirectory,
+            @Value("${progress.write-behind.fsync:true}") boolean fsync) {
+        this.catalogRouter = catalogRouter;
+        this.enrollmentMembership = enrollmentMembership;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+
+        this.journal = new CompletionJournal(journalDirectory, fsync);
+        List<PendingCompletion> recovered = journal.read(journal.recoveredSegments());
+        recovered.forEach(this::enqueue);
+        unflushedSegments.addAll(journal.recoveredSegments());
+        if (!recovered.isEmpty()) {
+            log.info("Recovered {} journaled completions for replay", recovered.size());
+        }
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "completion-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Validates, journals and queues a completion.
+     *
+     * @throws ResourceNotFoundException if the subtopic does not exist
+     * @throws ForbiddenException        if the user is not enrolled in its course
+     */
+    public PendingCompletion submit(Long userId, String subtopicId) {
+        String courseId = catalogRouter.findCourseOfSubtopic(subtopicId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Subtopic with id '" + subtopicId + "' does not exist"));
+        Long enrollmentId = enrollmentMembership.findEnrollmentId(userId, courseId)
+                .orElseThrow(() -> new ForbiddenException(
+                        "You must be enrolled in this course to mark subtopics as complete"));
+
+        PendingCompletion completion = new PendingCompletion(userId, subtopicId, enrollmentId, LocalDateTime.now());
+        long position;
+        int pending;
+        synchronized (lock) {
+            position = journal.append(completion);
+            enqueue(completion);
+            pending = queue.size();
+        }
+        if (pending >= batchSize) {
+            flusher.execute(this::flushQuietly);
+        }
+        journal.sync(position);
+        return completion;
+    }
+
+    // Keeps the earliest completion per user and subtopic; caller holds lock
+    private void enqueue(PendingCompletion completion) {
+        queue.putIfAbsent(new CompletionKey(completion.getUserId(), completion.getSubtopicId()), completion);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to flush queued completions, will retry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Writes everything queued so far. Only ever runs on the flusher thread,
+     * except for the final flush at shutdown.
+     * <p>
+     * A batch rejected by a constraint is retried one completion at a time,
+     * so a single bad row (say, for a subtopic deleted since it was journaled)
+     * cannot hold back the rest; rows rejected on their own are moved to the
+     * dead-letter file. Any other failure puts the whole batch back for the
+     * next attempt, which reuses the segments already rotated out for it.
+     */
+    void flush() {
+        List<PendingCompletion> batch;
+        List<Path> segments;
+        synchronized (lock) {
+            if (queue.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(queue.values());
+            queue = new LinkedHashMap<>();
+            if (journal.hasUnrotatedAppends()) {
+                unflushedSegments.add(journal.rotate());
+            }
+            segments = new ArrayList<>(unflushedSegments);
+        }
+
+        // Fixed row order, as in bulk completion requests, so parallel writers cannot deadlock
+        batch.sort(WRITE_ORDER);
+        try {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (int from = 0; from < batch.size(); from += batchSize) {
+                        write(batch.subList(from, Math.min(from + batchSize, batch.size())));
+                    }
+                });
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Batch of {} completions rejected, retrying one at a time: {}", batch.size(),
+                        e.getMessage());
+                writeIndividually(batch);
+            }
+        } catch (RuntimeException e) {
+            // Rewriting rows that did commit is harmless, the upsert only counts a completion once
+            synchronized (lock) {
+                batch.forEach(this::enqueue);
+            }
+            throw e;
+        }
+
+        journal.delete(segments);
+        synchronized (lock) {
+            unflushedSegments.removeAll(segments);
+        }
+    }
+
+    private void writeIndividually(List<PendingCompletion> batch) {
+        List<PendingCompletion> rejected = new ArrayList<>();
+        for (PendingCompletion completion : batch) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(List.of(completion)));
+            } catch (DataIntegrityViolationException e) {
+                rejected.add(completion);
+            }
+        }
+        if (!rejected.isEmpty()) {
+            journal.deadLetter(rejected);
+            log.error("Moved {} completions that violate database constraints to the dead-letter file",
+                    rejected.size());
+        }
+    }
+
+    private void write(List<PendingCompletion> chunk) {
+        StringBuilder sql = new StringBuilder(
+                "WITH done AS (INSERT INTO subtopic_progress (user_id, subtopic_id, enrollment_id, completed, completed_at) VALUES ");
+        Object[] args = new Object[chunk.size() * 4];
+        for (int i = 0; i < chunk.size(); i++) {
+            PendingCompletion completion = chunk.get(i);
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, true, ?)");
+            args[i * 4] = completion.getUserId();
+            args[i * 4 + 1] = completion.getSubtopicId();
+            args[i * 4 + 2] = completion.getEnrollmentId();
+            args[i * 4 + 3] = Timestamp.valueOf(completion.getCompletedAt());
+        }
+        // Only rows this statement inserted or flipped to completed are returned and counted
+        sql.append(" ON CONFLICT (user_id, subtopic_id) DO UPDATE SET completed = true, ")
+                .append("completed_at = COALESCE(subtopic_progress.completed_at, EXCLUDED.completed_at) ")
+                .append("WHERE NOT subtopic_progress.completed RETURNING enrollment_id) ")
+                .append("UPDATE enrollments e SET completed_count = e.completed_count + d.completed ")
+                .append("FROM (SELECT enrollment_id, COUNT(*) AS completed FROM done GROUP BY enrollment_id) d ")
+                .append("WHERE e.id = d.enrollment_id");
+        jdbcTemplate.update(sql.toString(), args);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Final flush of queued completions failed; they will be replayed from the journal: {}",
+                    e.getMessage());
+        }
+        journal.close();
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class CompletionKey {
+        private final Long userId;
+        private final String subtopicId;
+    }
+}
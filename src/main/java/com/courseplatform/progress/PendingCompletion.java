@@ -0,0 +1,19 @@
+package com.courseplatform.progress;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A subtopic completion that has been acknowledged and journaled but not yet
+ * written to {@code subtopic_progress}.
+ */
+@Getter
+@AllArgsConstructor
+public class PendingCompletion {
+    private final Long userId;
+    private final String subtopicId;
+    private final Long enrollmentId;
+    private final LocalDateTime completedAt;
+}
@@ -0,0 +1,13 @@
+package com.courseplatform.repository;
+
+/**
+ * Title-only view of a course, topic or subtopic, used where the catalog has
+ * to be scanned without loading descriptions or lesson content.
+ */
+public interface CatalogTitle {
+    String getId();
+
+    String getTitle();
+
+    String getCourseId();
+}
@@ -0,0 +1,15 @@
+package com.courseplatform.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Completed subtopic of an enrollment, read without hydrating the progress or
+ * subtopic entities.
+ */
+public interface CompletedProgressRow {
+    String getSubtopicId();
+
+    String getSubtopicTitle();
+
+    LocalDateTime getCompletedAt();
+}
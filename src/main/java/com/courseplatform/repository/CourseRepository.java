@@ -1,11 +1,14 @@
 package com.courseplatform.repository;
 
 import com.courseplatform.entity.Course;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -20,4 +23,47 @@ public interface CourseRepository extends JpaRepository<Course, String> {
             "OR LOWER(s.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
             "OR LOWER(s.content) LIKE LOWER(CONCAT('%', :query, '%'))")
     List<Course> searchCourses(@Param("query") String query);
+
+    @Query("SELECT c.id AS id, c.title AS title, c.description AS description, " +
+            "COUNT(DISTINCT t.id) AS topicCount, COUNT(s.id) AS subtopicCount " +
+            "FROM Course c " +
+            "LEFT JOIN c.topics t " +
+            "LEFT JOIN t.subtopics s " +
+            "GROUP BY c.id, c.title, c.description")
+    List<CourseSummary> findAllSummaries();
+
+    /**
+     * Courses with their topics in one statement. Subtopics are then loaded in
+     * batches of {@code hibernate.default_batch_fetch_size} topics, so the whole
+     * graph costs one query plus one per batch instead of one per topic.
+     */
+    @EntityGraph(attributePaths = "topics")
+    @Query("SELECT c FROM Course c")
+    List<Course> findAllWithTopics();
+
+    @EntityGraph(attributePaths = "topics")
+    @Query("SELECT c FROM Course c WHERE c.id IN :ids")
+    List<Course> findWithTopicsByIdIn(@Param("ids") Collection<String> ids);
+
+    @Modifying
+    @Query(value = "UPDATE courses c SET subtopic_count = n.subtopics " +
+            "FROM (SELECT c2.id, (SELECT COUNT(*) FROM subtopics s JOIN topics t ON t.id = s.topic_id " +
+            "WHERE t.course_id = c2.id) AS subtopics FROM courses c2) n " +
+            "WHERE c.id = n.id AND c.subtopic_count <> n.subtopics",
+            nativeQuery = true)
+    int recountSubtopics();
+
+    @Modifying
+    @Query(value = "UPDATE courses c SET subtopic_count = n.subtopics " +
+            "FROM (SELECT c2.id, (SELECT COUNT(*) FROM subtopics s JOIN topics t ON t.id = s.topic_id " +
+            "WHERE t.course_id = c2.id) AS subtopics FROM courses c2 WHERE c2.id IN (:ids)) n " +
+            "WHERE c.id = n.id AND c.subtopic_count <> n.subtopics",
+            nativeQuery = true)
+    int recountSubtopics(@Param("ids") Collection<String> ids);
+
+    @Query("SELECT c.id AS id, c.title AS title, c.id AS courseId FROM Course c")
+    List<CatalogTitle> findAllTitles();
+
+    @Query("SELECT c.id AS id, c.title AS title, c.id AS courseId FROM Course c WHERE c.id IN :ids")
+    List<CatalogTitle> findTitlesByIdIn(@Param("ids") Collection<String> ids);
 }
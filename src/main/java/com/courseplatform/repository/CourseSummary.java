@@ -0,0 +1,17 @@
+package com.courseplatform.repository;
+
+/**
+ * Course header with aggregated topic and subtopic counts, returned by
+ * {@link CourseRepository#findAllSummaries()}.
+ */
+public interface CourseSummary {
+    String getId();
+
+    String getTitle();
+
+    String getDescription();
+
+    long getTopicCount();
+
+    long getSubtopicCount();
+}
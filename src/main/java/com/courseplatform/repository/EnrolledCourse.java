@@ -0,0 +1,11 @@
+package com.courseplatform.repository;
+
+/**
+ * Id-only view of an enrollment, used to cache a user's course memberships
+ * without loading enrollment or course rows.
+ */
+public interface EnrolledCourse {
+    Long getId();
+
+    String getCourseId();
+}
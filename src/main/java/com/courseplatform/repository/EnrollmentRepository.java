@@ -1,21 +1,64 @@
 package com.courseplatform.repository;
 
 import com.courseplatform.entity.Enrollment;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
 
-    @Query("SELECT e FROM Enrollment e WHERE e.user.id = :userId AND e.course.id = :courseId")
-    Optional<Enrollment> findByUserIdAndCourseId(@Param("userId") Long userId, @Param("courseId") String courseId);
-
-    boolean existsByUserIdAndCourseId(Long userId, String courseId);
+    @EntityGraph(attributePaths = "course")
+    @Query("SELECT e FROM Enrollment e WHERE e.id = :id")
+    Optional<Enrollment> findWithCourseById(@Param("id") Long id);
 
     List<Enrollment> findByUserId(Long userId);
+
+    @Query("SELECT e.id FROM Enrollment e WHERE e.user.id = :userId AND e.course.id = :courseId")
+    Optional<Long> findIdByUserIdAndCourseId(@Param("userId") Long userId, @Param("courseId") String courseId);
+
+    @Query("SELECT e.id AS id, e.course.id AS courseId FROM Enrollment e WHERE e.user.id = :userId")
+    List<EnrolledCourse> findEnrolledCourses(@Param("userId") Long userId);
+
+    @Query("SELECT e.id AS enrollmentId, c.id AS courseId, c.title AS courseTitle, e.enrolledAt AS enrolledAt, " +
+            "e.completedCount AS completedCount, c.subtopicCount AS subtopicCount " +
+            "FROM Enrollment e JOIN e.course c WHERE e.user.id = :userId ORDER BY e.enrolledAt DESC, e.id DESC")
+    List<EnrollmentSummaryRow> findSummariesByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM Enrollment e")
+    long findMaxId();
+
+    /**
+     * Corrects the counter of enrollments in {@code (afterId, toId]} whose
+     * value differs from their progress rows; correct rows are not touched.
+     */
+    @Modifying
+    @Query(value = "UPDATE enrollments e SET completed_count = c.completed " +
+            "FROM (SELECT e2.id, (SELECT COUNT(*) FROM subtopic_progress p " +
+            "WHERE p.enrollment_id = e2.id AND p.completed) AS completed " +
+            "FROM enrollments e2 WHERE e2.id > :afterId AND e2.id <= :toId) c " +
+            "WHERE e.id = c.id AND e.completed_count <> c.completed",
+            nativeQuery = true)
+    int recountCompleted(@Param("afterId") long afterId, @Param("toId") long toId);
+
+    /**
+     * Corrects the counter of every enrollment in the given courses, for
+     * catalog changes that removed progress rows along with a subtopic;
+     * correct rows are not touched.
+     */
+    @Modifying
+    @Query(value = "UPDATE enrollments e SET completed_count = c.completed " +
+            "FROM (SELECT e2.id, (SELECT COUNT(*) FROM subtopic_progress p " +
+            "WHERE p.enrollment_id = e2.id AND p.completed) AS completed " +
+            "FROM enrollments e2 WHERE e2.course_id IN (:courseIds)) c " +
+            "WHERE e.id = c.id AND e.completed_count <> c.completed",
+            nativeQuery = true)
+    int recountCompletedByCourseIdIn(@Param("courseIds") Collection<String> courseIds);
 }
@@ -0,0 +1,21 @@
+package com.courseplatform.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Enrollment with its course title and both progress counters, read in one
+ * query for a user's enrollment list.
+ */
+public interface EnrollmentSummaryRow {
+    Long getEnrollmentId();
+
+    String getCourseId();
+
+    String getCourseTitle();
+
+    LocalDateTime getEnrolledAt();
+
+    int getCompletedCount();
+
+    int getSubtopicCount();
+}
@@ -1,9 +1,13 @@
 package com.courseplatform.repository;
 
 import com.courseplatform.entity.SubtopicProgress;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,5 +18,15 @@ public interface SubtopicProgressRepository extends JpaRepository<SubtopicProgre
 
     List<SubtopicProgress> findByEnrollmentId(Long enrollmentId);
 
-    long countByEnrollmentIdAndCompletedTrue(Long enrollmentId);
+    List<SubtopicProgress> findByUserIdAndSubtopicIdIn(Long userId, Collection<String> subtopicIds);
+
+    /**
+     * One page of completed subtopics in completion order. No count query is
+     * issued; the total is {@code Enrollment.completedCount}.
+     */
+    @Query("SELECT s.id AS subtopicId, s.title AS subtopicTitle, p.completedAt AS completedAt " +
+            "FROM SubtopicProgress p JOIN p.subtopic s " +
+            "WHERE p.enrollment.id = :enrollmentId AND p.completed = true " +
+            "ORDER BY p.completedAt, p.id")
+    List<CompletedProgressRow> findCompletedRows(@Param("enrollmentId") Long enrollmentId, Pageable pageable);
 }
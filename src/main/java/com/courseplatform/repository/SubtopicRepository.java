@@ -2,8 +2,20 @@ package com.courseplatform.repository;
 
 import com.courseplatform.entity.Subtopic;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface SubtopicRepository extends JpaRepository<Subtopic, String> {
+
+    @Query("SELECT s.id AS id, s.title AS title, t.course.id AS courseId FROM Subtopic s JOIN s.topic t")
+    List<CatalogTitle> findAllTitles();
+
+    @Query("SELECT s.id AS id, s.title AS title, t.course.id AS courseId FROM Subtopic s JOIN s.topic t " +
+            "WHERE s.id IN :ids")
+    List<CatalogTitle> findTitlesByIdIn(@Param("ids") Collection<String> ids);
 }
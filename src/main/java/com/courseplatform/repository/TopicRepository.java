@@ -2,8 +2,19 @@ package com.courseplatform.repository;
 
 import com.courseplatform.entity.Topic;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface TopicRepository extends JpaRepository<Topic, String> {
+
+    @Query("SELECT t.id AS id, t.title AS title, t.course.id AS courseId FROM Topic t")
+    List<CatalogTitle> findAllTitles();
+
+    @Query("SELECT t.id AS id, t.title AS title, t.course.id AS courseId FROM Topic t WHERE t.id IN :ids")
+    List<CatalogTitle> findTitlesByIdIn(@Param("ids") Collection<String> ids);
 }
@@ -0,0 +1,16 @@
+package com.courseplatform.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Course header kept alongside the index so hits can be grouped and labelled
+ * without going back to the database.
+ */
+@Getter
+@AllArgsConstructor
+public final class CourseEntry {
+    private final String id;
+    private final String title;
+    private final int ordinal;
+}
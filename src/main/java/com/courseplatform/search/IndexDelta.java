@@ -0,0 +1,78 @@
+package com.courseplatform.search;
+
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.entity.Topic;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A batch of catalog changes to fold into a {@link SearchIndex}. Entity values
+ * are copied as they are added, so a delta can outlive the session that loaded
+ * them. Each upserted unit (course header, topic header or subtopic) replaces
+ * every older document of that unit; removed units are simply superseded.
+ */
+public final class IndexDelta {
+
+    final IndexSegment.Builder segment = new IndexSegment.Builder();
+    final Map<String, String> courseTitles = new LinkedHashMap<>();
+    final Map<String, TopicEntry> topics = new LinkedHashMap<>();
+    final Set<String> removedCourses = new LinkedHashSet<>();
+    final Set<String> removedTopics = new LinkedHashSet<>();
+
+    public IndexDelta upsertCourse(Course course) {
+        segment.supersedeCourse(course.getId());
+        courseTitles.put(course.getId(), course.getTitle());
+        removedCourses.remove(course.getId());
+        segment.addDocument(SearchField.COURSE_TITLE, course.getId(), null, null, null, course.getTitle());
+        segment.addDocument(SearchField.COURSE_DESCRIPTION, course.getId(), null, null, null,
+                course.getDescription());
+        return this;
+    }
+
+    public IndexDelta upsertTopic(Topic topic) {
+        String courseId = topic.getCourse().getId();
+        segment.supersedeTopic(topic.getId());
+        topics.put(topic.getId(), new TopicEntry(topic.getId(), courseId, topic.getTitle(), -1));
+        removedTopics.remove(topic.getId());
+        segment.addDocument(SearchField.TOPIC_TITLE, courseId, topic.getId(), null, null, topic.getTitle());
+        return this;
+    }
+
+    public IndexDelta upsertSubtopic(Subtopic subtopic) {
+        Topic topic = subtopic.getTopic();
+        String courseId = topic.getCourse().getId();
+        segment.supersedeSubtopic(subtopic.getId());
+        segment.addDocument(SearchField.SUBTOPIC_TITLE, courseId, topic.getId(), subtopic.getId(),
+                subtopic.getTitle(), subtopic.getTitle());
+        segment.addDocument(SearchField.CONTENT, courseId, topic.getId(), subtopic.getId(),
+                subtopic.getTitle(), subtopic.getContent());
+        return this;
+    }
+
+    public IndexDelta removeCourse(String courseId) {
+        segment.supersedeCourse(courseId);
+        courseTitles.remove(courseId);
+        removedCourses.add(courseId);
+        return this;
+    }
+
+    public IndexDelta removeTopic(String topicId) {
+        segment.supersedeTopic(topicId);
+        topics.remove(topicId);
+        removedTopics.add(topicId);
+        return this;
+    }
+
+    public IndexDelta removeSubtopic(String subtopicId) {
+        segment.supersedeSubtopic(subtopicId);
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return segment.isEmpty();
+    }
+}
@@ -0,0 +1,83 @@
+package com.courseplatform.search;
+
+import com.courseplatform.dto.SearchResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Default backend: answers queries from the in-memory {@link SearchIndex}
+ * without touching the database.
+ */
+@Component
+@ConditionalOnProperty(name = "search.mode", havingValue = "index", matchIfMissing = true)
+@RequiredArgsConstructor
+public class IndexSearchBackend implements SearchBackend {
+
+    private final SearchIndexManager searchIndexManager;
+
+    @Value("${search.max-matches-per-course:10}")
+    private int maxMatchesPerCourse;
+
+    @Override
+    public SearchResponse search(SearchQuery query) {
+        RankedResultCollector<SearchHit> collector = new RankedResultCollector<>(query, maxMatchesPerCourse);
+        searchIndexManager.current().search(query.getText(),
+                hit -> collector.add(hit.getCourse().getId(), hit.getCourse().getTitle(), hit.getScore(), hit));
+        return collector.toResponse(this::buildMatch);
+    }
+
+    @Override
+    public long version() {
+        return searchIndexManager.current().getVersion();
+    }
+
+    @Override
+    public String cacheKey(String query) {
+        return String.join(" ", Tokenizer.terms(query));
+    }
+
+    private SearchResponse.Match buildMatch(SearchHit hit) {
+        SearchDocument document = hit.getDocument();
+        String topicTitle = hit.getTopic() != null ? hit.getTopic().getTitle() : null;
+        Snippet snippet = createSnippet(hit);
+
+        SearchResponse.Match.MatchBuilder match = SearchResponse.Match.builder()
+                .type(document.getField().getMatchType())
+                .snippet(snippet.getText())
+                .highlights(toHighlights(snippet));
+
+        switch (document.getField()) {
+            case TOPIC_TITLE -> match.topicTitle(topicTitle);
+            case SUBTOPIC_TITLE, CONTENT -> match
+                    .topicTitle(topicTitle)
+                    .subtopicId(document.getSubtopicId())
+                    .subtopicTitle(document.getSubtopicTitle());
+            default -> {
+            }
+        }
+
+        return match.build();
+    }
+
+    private Snippet createSnippet(SearchHit hit) {
+        String text = hit.getDocument().getText();
+        return switch (hit.getDocument().getField()) {
+            case COURSE_DESCRIPTION, CONTENT -> SnippetGenerator.around(text, hit.getMatchStart(), hit.getMatchEnd());
+            default -> SnippetGenerator.whole(text, hit.getMatchStart(), hit.getMatchEnd());
+        };
+    }
+
+    private List<SearchResponse.Highlight> toHighlights(Snippet snippet) {
+        if (snippet.getHighlightStart() < 0) {
+            return List.of();
+        }
+        return List.of(SearchResponse.Highlight.builder()
+                .start(snippet.getHighlightStart())
+                .end(snippet.getHighlightEnd())
+                .build());
+    }
+}
@@ -0,0 +1,292 @@
+package com.courseplatform.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * An immutable block of documents together with its term dictionary. Terms are
+ * kept sorted so the last query term can be expanded as a prefix with a single
+ * range lookup.
+ * <p>
+ * A segment also records which courses, topics and subtopics it supersedes:
+ * documents for those units in older segments are treated as deleted.
+ */
+final class IndexSegment {
+
+    private static final Posting[] NO_POSTINGS = new Posting[0];
+
+    private final List<SearchDocument> documents;
+    private final NavigableMap<String, Posting[]> terms;
+    private final Set<String> supersededCourses;
+    private final Set<String> supersededTopics;
+    private final Set<String> supersededSubtopics;
+    private final int[] fieldDocuments;
+    private final long[] fieldLengths;
+
+    private IndexSegment(List<SearchDocument> documents, NavigableMap<String, Posting[]> terms,
+            Set<String> supersededCourses, Set<String> supersededTopics, Set<String> supersededSubtopics) {
+        this.documents = documents;
+        this.terms = terms;
+        this.fieldDocuments = new int[SearchField.values().length];
+        this.fieldLengths = new long[SearchField.values().length];
+        for (SearchDocument document : documents) {
+            fieldDocuments[document.getField().ordinal()]++;
+            fieldLengths[document.getField().ordinal()] += document.getLength();
+        }
+        this.supersededCourses = supersededCourses;
+        this.supersededTopics = supersededTopics;
+        this.supersededSubtopics = supersededSubtopics;
+    }
+
+    List<SearchDocument> documents() {
+        return documents;
+    }
+
+    int fieldDocuments(SearchField field) {
+        return fieldDocuments[field.ordinal()];
+    }
+
+    long fieldLength(SearchField field) {
+        return fieldLengths[field.ordinal()];
+    }
+
+    /**
+     * Number of postings for {@code term} (or every term it prefixes), used as
+     * the document frequency when scoring. Superseded documents are counted
+     * too, which only slightly skews scores until the next merge.
+     */
+    int documentFrequency(String term, boolean prefix) {
+        if (!prefix) {
+            Posting[] exact = terms.get(term);
+            return exact != null ? exact.length : 0;
+        }
+        int frequency = 0;
+        for (Posting[] termPostings : terms.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+            frequency += termPostings.length;
+        }
+        return frequency;
+    }
+
+    /**
+     * Whether this segment replaces or deletes the unit that {@code document}
+     * (from an older segment) belongs to.
+     */
+    boolean supersedes(SearchDocument document) {
+        return switch (document.getField()) {
+            case COURSE_TITLE, COURSE_DESCRIPTION -> supersededCourses.contains(document.getCourseId());
+            case TOPIC_TITLE -> supersededTopics.contains(document.getTopicId());
+            case SUBTOPIC_TITLE, CONTENT -> supersededSubtopics.contains(document.getSubtopicId());
+        };
+    }
+
+    @FunctionalInterface
+    interface MatchConsumer {
+        void accept(SearchDocument document, int start, int end, int occurrences);
+    }
+
+    /**
+     * Finds documents containing the query terms as a phrase. All terms but the
+     * last must match exactly; the last one matches any indexed term it is a
+     * prefix of, which keeps partial-word queries such as "velo" working.
+     */
+    void match(List<String> queryTerms, MatchConsumer consumer) {
+        int n = queryTerms.size();
+        Posting[][] postings = new Posting[n][];
+        for (int i = 0; i < n; i++) {
+            postings[i] = lookup(queryTerms.get(i), i == n - 1);
+            if (postings[i].length == 0) {
+                return;
+            }
+        }
+
+        Posting[] first = postings[0];
+        int[] cursors = new int[n];
+        int i = 0;
+        while (i < first.length) {
+            int doc = first[i].doc;
+            int firstEnd = rangeEnd(first, i);
+
+            boolean candidate = true;
+            for (int t = 1; t < n && candidate; t++) {
+                cursors[t] = lowerBound(postings[t], cursors[t], doc);
+                candidate = cursors[t] < postings[t].length && postings[t][cursors[t]].doc == doc;
+            }
+
+            if (candidate) {
+                matchDocument(doc, postings, i, firstEnd, cursors, consumer);
+            }
+            i = firstEnd;
+        }
+    }
+
+    private void matchDocument(int doc, Posting[][] postings, int firstFrom, int firstTo, int[] cursors,
+            MatchConsumer consumer) {
+        int n = postings.length;
+        int bestStart = Integer.MAX_VALUE;
+        int bestEnd = -1;
+        int occurrences = 0;
+
+        for (int p = firstFrom; p < firstTo; p++) {
+            Posting head = postings[0][p];
+            for (int k = 0; k < head.positions.length; k++) {
+                int end = phraseEnd(postings, cursors, doc, head.positions[k], head.ends[k]);
+                if (end < 0) {
+                    continue;
+                }
+                occurrences++;
+                if (head.starts[k] < bestStart) {
+                    bestStart = head.starts[k];
+                    bestEnd = end;
+                }
+            }
+        }
+
+        if (occurrences > 0) {
+            consumer.accept(documents.get(doc), bestStart, bestEnd, occurrences);
+        }
+    }
+
+    private int phraseEnd(Posting[][] postings, int[] cursors, int doc, int position, int headEnd) {
+        int end = headEnd;
+        for (int t = 1; t < postings.length; t++) {
+            int found = -1;
+            Posting[] termPostings = postings[t];
+            for (int p = cursors[t]; p < termPostings.length && termPostings[p].doc == doc; p++) {
+                int index = termPostings[p].indexOfPosition(position + t);
+                if (index >= 0) {
+                    found = termPostings[p].ends[index];
+                    break;
+                }
+            }
+            if (found < 0) {
+                return -1;
+            }
+            end = found;
+        }
+        return end;
+    }
+
+    private Posting[] lookup(String term, boolean prefix) {
+        if (!prefix) {
+            Posting[] exact = terms.get(term);
+            return exact != null ? exact : NO_POSTINGS;
+        }
+
+        Collection<Posting[]> expanded = terms.subMap(term, true, term + Character.MAX_VALUE, false).values();
+        if (expanded.size() == 1) {
+            return expanded.iterator().next();
+        }
+
+        List<Posting> merged = new ArrayList<>();
+        for (Posting[] termPostings : expanded) {
+            Collections.addAll(merged, termPostings);
+        }
+        merged.sort(Comparator.comparingInt(posting -> posting.doc));
+        return merged.toArray(NO_POSTINGS);
+    }
+
+    private static int rangeEnd(Posting[] postings, int from) {
+        int doc = postings[from].doc;
+        int i = from + 1;
+        while (i < postings.length && postings[i].doc == doc) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int lowerBound(Posting[] postings, int from, int doc) {
+        int low = from;
+        int high = postings.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (postings[mid].doc < doc) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    static final class Builder {
+        private final List<SearchDocument> documents = new ArrayList<>();
+        private final Map<String, List<Posting.Builder>> terms = new HashMap<>();
+        private final Set<String> supersededCourses = new HashSet<>();
+        private final Set<String> supersededTopics = new HashSet<>();
+        private final Set<String> supersededSubtopics = new HashSet<>();
+
+        void supersedeCourse(String courseId) {
+            supersededCourses.add(courseId);
+        }
+
+        void supersedeTopic(String topicId) {
+            supersededTopics.add(topicId);
+        }
+
+        void supersedeSubtopic(String subtopicId) {
+            supersededSubtopics.add(subtopicId);
+        }
+
+        void supersedeAll(IndexSegment segment) {
+            supersededCourses.addAll(segment.supersededCourses);
+            supersededTopics.addAll(segment.supersededTopics);
+            supersededSubtopics.addAll(segment.supersededSubtopics);
+        }
+
+        boolean isEmpty() {
+            return documents.isEmpty() && supersededCourses.isEmpty() && supersededTopics.isEmpty()
+                    && supersededSubtopics.isEmpty();
+        }
+
+        void addDocument(SearchDocument document) {
+            addDocument(document.getField(), document.getCourseId(), document.getTopicId(),
+                    document.getSubtopicId(), document.getSubtopicTitle(), document.getText());
+        }
+
+        void addDocument(SearchField field, String courseId, String topicId, String subtopicId,
+                String subtopicTitle, String text) {
+            if (text == null || text.isEmpty()) {
+                return;
+            }
+
+            int doc = documents.size();
+            int length = Tokenizer.tokenize(text, (term, position, start, end) -> {
+                List<Posting.Builder> termPostings = terms.computeIfAbsent(term, key -> new ArrayList<>());
+                Posting.Builder last = termPostings.isEmpty() ? null : termPostings.get(termPostings.size() - 1);
+                if (last == null || last.doc() != doc) {
+                    last = new Posting.Builder(doc);
+                    termPostings.add(last);
+                }
+                last.add(position, start, end);
+            });
+
+            documents.add(new SearchDocument(doc, field, courseId, topicId, subtopicId, subtopicTitle, text, length));
+        }
+
+        IndexSegment build() {
+            TreeMap<String, Posting[]> dictionary = new TreeMap<>();
+            terms.forEach((term, builders) -> {
+                Posting[] termPostings = new Posting[builders.size()];
+                for (int i = 0; i < termPostings.length; i++) {
+                    termPostings[i] = builders.get(i).build();
+                }
+                dictionary.put(term, termPostings);
+            });
+            return new IndexSegment(List.copyOf(documents), Collections.unmodifiableNavigableMap(dictionary),
+                    Set.copyOf(supersededCourses), Set.copyOf(supersededTopics), Set.copyOf(supersededSubtopics));
+        }
+    }
+
+    int termCount() {
+        return terms.size();
+    }
+}
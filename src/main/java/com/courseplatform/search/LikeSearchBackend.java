@@ -0,0 +1,115 @@
+package com.courseplatform.search;
+
+import com.courseplatform.catalog.CatalogVersion;
+import com.courseplatform.dto.SearchResponse;
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.entity.Topic;
+import com.courseplatform.repository.CourseRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Substring search using {@code LIKE} in the database and a case-insensitive
+ * scan of the matched courses. Slow on large catalogs, but portable to any
+ * database and the only mode that matches infix substrings.
+ */
+@Component
+@ConditionalOnProperty(name = "search.mode", havingValue = "like")
+@RequiredArgsConstructor
+public class LikeSearchBackend implements SearchBackend {
+
+    private final CourseRepository courseRepository;
+    private final CatalogVersion catalogVersion;
+
+    @Value("${search.max-matches-per-course:10}")
+    private int maxMatchesPerCourse;
+
+    @Override
+    @Transactional(readOnly = true)
+    public SearchResponse search(SearchQuery query) {
+        RankedResultCollector<SearchResponse.Match> collector = new RankedResultCollector<>(query,
+                maxMatchesPerCourse);
+        String text = query.getText().strip();
+        if (text.isBlank()) {
+            return collector.toResponse(Function.identity());
+        }
+
+        for (Course course : courseRepository.searchCourses(text)) {
+            collectMatches(collector, course, text);
+        }
+        return collector.toResponse(Function.identity());
+    }
+
+    @Override
+    public long version() {
+        return catalogVersion.current();
+    }
+
+    // No Unicode folding here: LOWER() in the database does not apply it either
+    @Override
+    public String cacheKey(String query) {
+        return query.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * LIKE gives no relevance signal, so every match scores its field weight.
+     */
+    private void collectMatches(RankedResultCollector<SearchResponse.Match> collector, Course course,
+            String query) {
+        addMatch(collector, course, SearchField.COURSE_TITLE, course.getTitle(), query,
+                SearchResponse.Match.builder());
+        addMatch(collector, course, SearchField.COURSE_DESCRIPTION, course.getDescription(), query,
+                SearchResponse.Match.builder());
+
+        for (Topic topic : course.getTopics()) {
+            addMatch(collector, course, SearchField.TOPIC_TITLE, topic.getTitle(), query,
+                    SearchResponse.Match.builder()
+                            .topicTitle(topic.getTitle()));
+
+            for (Subtopic subtopic : topic.getSubtopics()) {
+                addMatch(collector, course, SearchField.SUBTOPIC_TITLE, subtopic.getTitle(), query,
+                        SearchResponse.Match.builder()
+                                .topicTitle(topic.getTitle())
+                                .subtopicId(subtopic.getId())
+                                .subtopicTitle(subtopic.getTitle()));
+                addMatch(collector, course, SearchField.CONTENT, subtopic.getContent(), query,
+                        SearchResponse.Match.builder()
+                                .topicTitle(topic.getTitle())
+                                .subtopicId(subtopic.getId())
+                                .subtopicTitle(subtopic.getTitle()));
+            }
+        }
+    }
+
+    private void addMatch(RankedResultCollector<SearchResponse.Match> collector, Course course, SearchField field,
+            String text, String query, SearchResponse.Match.MatchBuilder match) {
+        if (text == null) {
+            return;
+        }
+        int index = SnippetGenerator.indexOfIgnoreCase(text, query);
+        if (index < 0) {
+            return;
+        }
+
+        int end = index + query.length();
+        Snippet snippet = field == SearchField.COURSE_DESCRIPTION || field == SearchField.CONTENT
+                ? SnippetGenerator.around(text, index, end)
+                : SnippetGenerator.whole(text, index, end);
+        collector.add(course.getId(), course.getTitle(), field.getWeight(), match
+                .type(field.getMatchType())
+                .snippet(snippet.getText())
+                .highlights(List.of(SearchResponse.Highlight.builder()
+                        .start(snippet.getHighlightStart())
+                        .end(snippet.getHighlightEnd())
+                        .build()))
+                .build());
+    }
+}
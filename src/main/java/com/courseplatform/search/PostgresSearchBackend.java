@@ -0,0 +1,219 @@
+package com.courseplatform.search;
+
+import com.courseplatform.catalog.CatalogVersion;
+import com.courseplatform.dto.SearchResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the query inside PostgreSQL with {@code tsvector} columns and GIN
+ * indexes (see {@link PostgresSearchSchema}). Matching uses the English text
+ * search configuration, so words are stemmed.
+ * <p>
+ * Ranking, grouping by course and paging all happen in SQL: every matching
+ * field is scored with {@code ts_rank} times its {@link SearchField} weight,
+ * the same weights the other backends use, and course scores are the sum of
+ * their matches. Only the requested page comes back, with at most
+ * {@code search.max-matches-per-course} matches per course, and
+ * {@code ts_headline} runs for just those matches.
+ */
+@Component
+@ConditionalOnProperty(name = "search.mode", havingValue = "postgres")
+@RequiredArgsConstructor
+public class PostgresSearchBackend implements SearchBackend {
+
+    // Control characters cannot occur in catalog text, so they are safe highlight markers
+    private static final char START_SEL = '\u0002';
+    private static final char STOP_SEL = '\u0003';
+    private static final String TITLE_OPTIONS = "HighlightAll=true, StartSel=" + START_SEL + ", StopSel=" + STOP_SEL;
+    private static final String EXCERPT_OPTIONS = "MaxWords=30, MinWords=15, MaxFragments=1, StartSel=" + START_SEL
+            + ", StopSel=" + STOP_SEL;
+
+    // Course scores are rounded so that repeated runs sum to the same value and cursors stay exact.
+    // Course ids are compared bytewise (COLLATE "C"), the same order as SearchCursor.
+    private static final String SEARCH =
+            "WITH q AS (SELECT to_tsquery('english', :query) AS query), " +
+            "hits AS (" +
+            "SELECT c.id AS course_id, 'COURSE_TITLE' AS field, CAST(NULL AS VARCHAR) AS topic_id, " +
+            "CAST(NULL AS VARCHAR) AS subtopic_id, ts_rank(c.title_tsv, q.query) * :courseTitleWeight AS rank " +
+            "FROM courses c, q WHERE c.title_tsv @@ q.query " +
+            "UNION ALL " +
+            "SELECT c.id, 'COURSE_DESCRIPTION', NULL, NULL, " +
+            "ts_rank(c.description_tsv, q.query) * :courseDescriptionWeight " +
+            "FROM courses c, q WHERE c.description_tsv @@ q.query " +
+            "UNION ALL " +
+            "SELECT t.course_id, 'TOPIC_TITLE', t.id, NULL, ts_rank(t.title_tsv, q.query) * :topicTitleWeight " +
+            "FROM topics t, q WHERE t.title_tsv @@ q.query " +
+            "UNION ALL " +
+            "SELECT t.course_id, 'SUBTOPIC_TITLE', t.id, s.id, ts_rank(s.title_tsv, q.query) * :subtopicTitleWeight " +
+            "FROM subtopics s JOIN topics t ON t.id = s.topic_id, q WHERE s.title_tsv @@ q.query " +
+            "UNION ALL " +
+            "SELECT t.course_id, 'CONTENT', t.id, s.id, ts_rank(s.content_tsv, q.query) * :contentWeight " +
+            "FROM subtopics s JOIN topics t ON t.id = s.topic_id, q WHERE s.content_tsv @@ q.query), " +
+            "scored AS (" +
+            "SELECT course_id, CAST(ROUND(CAST(SUM(rank) AS NUMERIC), 9) AS DOUBLE PRECISION) AS score, " +
+            "COUNT(*) AS matches FROM hits GROUP BY course_id), " +
+            "page AS (" +
+            "SELECT * FROM scored " +
+            "WHERE score < :cursorScore OR (score = :cursorScore AND course_id COLLATE \"C\" > :cursorCourseId) " +
+            "ORDER BY score DESC, course_id COLLATE \"C\" OFFSET :offset LIMIT :size + 1), " +
+            "visible AS (SELECT * FROM page ORDER BY score DESC, course_id COLLATE \"C\" LIMIT :size), " +
+            "top_hits AS (" +
+            "SELECT h.*, ROW_NUMBER() OVER (PARTITION BY h.course_id " +
+            "ORDER BY h.rank DESC, h.field, h.topic_id, h.subtopic_id) AS hit_order " +
+            "FROM hits h JOIN visible v ON v.course_id = h.course_id) " +
+            "SELECT totals.total, totals.more, v.course_id, c.title AS course_title, v.score, v.matches, " +
+            "h.field, tp.title AS topic_title, s.id AS subtopic_id, s.title AS subtopic_title, " +
+            "CASE h.field " +
+            "WHEN 'COURSE_TITLE' THEN ts_headline('english', c.title, q.query, :titleOptions) " +
+            "WHEN 'COURSE_DESCRIPTION' THEN ts_headline('english', c.description, q.query, :excerptOptions) " +
+            "WHEN 'TOPIC_TITLE' THEN ts_headline('english', tp.title, q.query, :titleOptions) " +
+            "WHEN 'SUBTOPIC_TITLE' THEN ts_headline('english', s.title, q.query, :titleOptions) " +
+            "ELSE ts_headline('english', s.content, q.query, :excerptOptions) END AS headline " +
+            "FROM (SELECT (SELECT COUNT(*) FROM scored) AS total, (SELECT COUNT(*) FROM page) > :size AS more) totals " +
+            "CROSS JOIN q " +
+            "LEFT JOIN (visible v JOIN courses c ON c.id = v.course_id " +
+            "JOIN top_hits h ON h.course_id = v.course_id AND h.hit_order <= :maxMatchesPerCourse " +
+            "LEFT JOIN topics tp ON tp.id = h.topic_id " +
+            "LEFT JOIN subtopics s ON s.id = h.subtopic_id) ON true " +
+            "ORDER BY v.score DESC, v.course_id COLLATE \"C\", h.hit_order";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final CatalogVersion catalogVersion;
+
+    @Value("${search.max-matches-per-course:10}")
+    private int maxMatchesPerCourse;
+
+    @Override
+    @Transactional(readOnly = true)
+    public SearchResponse search(SearchQuery query) {
+        SearchCursor cursor = query.getCursor();
+        SearchResponse response = SearchResponse.builder()
+                .query(query.getText())
+                .page(cursor != null ? null : query.getPage())
+                .size(query.getSize())
+                .results(new ArrayList<>())
+                .build();
+        String tsQuery = toTsQuery(query.getText());
+        if (tsQuery.isEmpty()) {
+            return response;
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("query", tsQuery)
+                .addValue("courseTitleWeight", SearchField.COURSE_TITLE.getWeight())
+                .addValue("courseDescriptionWeight", SearchField.COURSE_DESCRIPTION.getWeight())
+                .addValue("topicTitleWeight", SearchField.TOPIC_TITLE.getWeight())
+                .addValue("subtopicTitleWeight", SearchField.SUBTOPIC_TITLE.getWeight())
+                .addValue("contentWeight", SearchField.CONTENT.getWeight())
+                // Without a cursor every score sorts after +Infinity, so only the offset applies
+                .addValue("cursorScore", cursor != null ? cursor.getScore() : Double.POSITIVE_INFINITY)
+                .addValue("cursorCourseId", cursor != null ? cursor.getCourseId() : "")
+                .addValue("offset", cursor != null ? 0 : (long) query.getPage() * query.getSize())
+                .addValue("size", query.getSize())
+                .addValue("maxMatchesPerCourse", maxMatchesPerCourse)
+                .addValue("titleOptions", TITLE_OPTIONS)
+                .addValue("excerptOptions", EXCERPT_OPTIONS);
+
+        return jdbcTemplate.query(SEARCH, params, resultSet -> {
+            List<SearchResponse.SearchResult> results = response.getResults();
+            SearchResponse.SearchResult result = null;
+            double lastScore = 0;
+            boolean more = false;
+            while (resultSet.next()) {
+                response.setTotalResults(resultSet.getInt("total"));
+                more = resultSet.getBoolean("more");
+                String courseId = resultSet.getString("course_id");
+                if (courseId == null) {
+                    // Past the last page: only the totals row
+                    break;
+                }
+                if (result == null || !result.getCourseId().equals(courseId)) {
+                    lastScore = resultSet.getDouble("score");
+                    result = SearchResponse.SearchResult.builder()
+                            .courseId(courseId)
+                            .courseTitle(resultSet.getString("course_title"))
+                            .score(Math.round(lastScore * 1000.0) / 1000.0)
+                            .totalMatches(resultSet.getInt("matches"))
+                            .matches(new ArrayList<>())
+                            .build();
+                    results.add(result);
+                }
+                result.getMatches().add(buildMatch(SearchField.valueOf(resultSet.getString("field")),
+                        resultSet.getString("topic_title"), resultSet.getString("subtopic_id"),
+                        resultSet.getString("subtopic_title"), resultSet.getString("headline")));
+            }
+            if (more && result != null) {
+                response.setNextCursor(new SearchCursor(lastScore, result.getCourseId()).encode());
+            }
+            return response;
+        });
+    }
+
+    @Override
+    public long version() {
+        return catalogVersion.current();
+    }
+
+    @Override
+    public String cacheKey(String query) {
+        return toTsQuery(query);
+    }
+
+    /**
+     * Turns the query into a phrase tsquery whose last word is a prefix, the
+     * same semantics as the in-memory index. Terms only contain letters and
+     * digits, so they cannot inject tsquery operators.
+     */
+    static String toTsQuery(String query) {
+        List<String> terms = Tokenizer.terms(query);
+        if (terms.isEmpty()) {
+            return "";
+        }
+        return String.join(" <-> ", terms) + ":*";
+    }
+
+    private SearchResponse.Match buildMatch(SearchField field, String topicTitle, String subtopicId,
+            String subtopicTitle, String headline) {
+        if (headline == null) {
+            headline = "";
+        }
+        StringBuilder snippet = new StringBuilder(headline.length());
+        List<SearchResponse.Highlight> highlights = new ArrayList<>();
+
+        int highlightStart = -1;
+        for (int i = 0; i < headline.length(); i++) {
+            char c = headline.charAt(i);
+            if (c == START_SEL) {
+                highlightStart = snippet.length();
+            } else if (c == STOP_SEL) {
+                if (highlightStart >= 0) {
+                    highlights.add(SearchResponse.Highlight.builder()
+                            .start(highlightStart)
+                            .end(snippet.length())
+                            .build());
+                }
+                highlightStart = -1;
+            } else {
+                snippet.append(c);
+            }
+        }
+
+        return SearchResponse.Match.builder()
+                .type(field.getMatchType())
+                .topicTitle(topicTitle)
+                .subtopicId(subtopicId)
+                .subtopicTitle(subtopicTitle)
+                .snippet(snippet.toString())
+                .highlights(highlights)
+                .build();
+    }
+}
@@ -0,0 +1,57 @@
+package com.courseplatform.search;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Adds the generated {@code tsvector} columns and their GIN indexes used by
+ * {@link PostgresSearchBackend}. Hibernate does not manage these columns, so
+ * they are created here (idempotently) after the schema update has run.
+ * Requires PostgreSQL 12 or newer.
+ */
+@Component
+@ConditionalOnProperty(name = "search.mode", havingValue = "postgres")
+@Slf4j
+public class PostgresSearchSchema implements InitializingBean {
+
+    private static final List<String> STATEMENTS = List.of(
+            tsvectorColumn("courses", "title_tsv", "title"),
+            tsvectorColumn("courses", "description_tsv", "description"),
+            tsvectorColumn("topics", "title_tsv", "title"),
+            tsvectorColumn("subtopics", "title_tsv", "title"),
+            tsvectorColumn("subtopics", "content_tsv", "content"),
+            ginIndex("courses", "title_tsv"),
+            ginIndex("courses", "description_tsv"),
+            ginIndex("topics", "title_tsv"),
+            ginIndex("subtopics", "title_tsv"),
+            ginIndex("subtopics", "content_tsv"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // The EntityManagerFactory is injected only so that Hibernate has created the tables first
+    public PostgresSearchSchema(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        STATEMENTS.forEach(jdbcTemplate::execute);
+        log.info("PostgreSQL full-text search columns and GIN indexes are in place");
+    }
+
+    private static String tsvectorColumn(String table, String column, String source) {
+        return "ALTER TABLE " + table + " ADD COLUMN IF NOT EXISTS " + column + " tsvector " +
+                "GENERATED ALWAYS AS (to_tsvector('english', coalesce(" + source + ", ''))) STORED";
+    }
+
+    private static String ginIndex(String table, String column) {
+        return "CREATE INDEX IF NOT EXISTS idx_" + table + "_" + column + " ON " + table + " USING GIN (" + column
+                + ")";
+    }
+}
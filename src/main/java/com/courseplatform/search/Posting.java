@@ -0,0 +1,60 @@
+package com.courseplatform.search;
+
+import java.util.Arrays;
+
+/**
+ * Occurrences of one term in one document: token positions plus the matching
+ * character ranges in the original text.
+ */
+final class Posting {
+
+    final int doc;
+    final int[] positions;
+    final int[] starts;
+    final int[] ends;
+
+    Posting(int doc, int[] positions, int[] starts, int[] ends) {
+        this.doc = doc;
+        this.positions = positions;
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    int indexOfPosition(int position) {
+        int index = Arrays.binarySearch(positions, position);
+        return index >= 0 ? index : -1;
+    }
+
+    static final class Builder {
+        private final int doc;
+        private int size;
+        private int[] positions = new int[2];
+        private int[] starts = new int[2];
+        private int[] ends = new int[2];
+
+        Builder(int doc) {
+            this.doc = doc;
+        }
+
+        int doc() {
+            return doc;
+        }
+
+        void add(int position, int start, int end) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            positions[size] = position;
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+        }
+
+        Posting build() {
+            return new Posting(doc, Arrays.copyOf(positions, size), Arrays.copyOf(starts, size),
+                    Arrays.copyOf(ends, size));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.courseplatform.search;
+
+import com.courseplatform.dto.SearchResponse;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * Groups scored hits by course and selects one page of courses by relevance.
+ * Only per-course totals and the best {@code maxMatchesPerCourse} hits of each
+ * course are retained, and pages are selected with a bounded heap, so the full
+ * result list is never materialized. Hits are converted to DTOs only for the
+ * courses on the returned page.
+ *
+ * @param <H> backend-specific hit type
+ */
+public final class RankedResultCollector<H> {
+
+    private static final Comparator<CourseAccumulator<?>> RANK_ORDER = Comparator
+            .comparingDouble((CourseAccumulator<?> course) -> course.score).reversed()
+            .thenComparing(course -> course.courseId);
+
+    private static final Comparator<ScoredHit<?>> HIT_ORDER = Comparator
+            .comparingDouble((ScoredHit<?> hit) -> hit.score).reversed()
+            .thenComparingLong(hit -> hit.sequence);
+
+    private final SearchQuery query;
+    private final int maxMatchesPerCourse;
+    private final Map<String, CourseAccumulator<H>> courses = new HashMap<>();
+    private long sequence;
+
+    public RankedResultCollector(SearchQuery query, int maxMatchesPerCourse) {
+        this.query = query;
+        this.maxMatchesPerCourse = maxMatchesPerCourse;
+    }
+
+    public void add(String courseId, String courseTitle, double score, H hit) {
+        CourseAccumulator<H> course = courses.computeIfAbsent(courseId,
+                id -> new CourseAccumulator<>(id, courseTitle));
+        course.score += score;
+        course.totalMatches++;
+
+        // Min-heap of the best hits: the worst retained hit is evicted first
+        course.topHits.offer(new ScoredHit<>(score, sequence++, hit));
+        if (course.topHits.size() > maxMatchesPerCourse) {
+            course.topHits.poll();
+        }
+    }
+
+    public SearchResponse toResponse(Function<H, SearchResponse.Match> toMatch) {
+        SearchCursor cursor = query.getCursor();
+        long limit = cursor != null ? query.getSize() : (long) (query.getPage() + 1) * query.getSize();
+
+        PriorityQueue<CourseAccumulator<H>> top = new PriorityQueue<>(RANK_ORDER.reversed());
+        int eligible = 0;
+        for (CourseAccumulator<H> course : courses.values()) {
+            if (cursor != null && !cursor.precedes(course.score, course.courseId)) {
+                continue;
+            }
+            eligible++;
+            top.offer(course);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<CourseAccumulator<H>> ranked = new ArrayList<>(top);
+        ranked.sort(RANK_ORDER);
+        int from = cursor != null ? 0 : Math.min(ranked.size(), query.getPage() * query.getSize());
+        List<CourseAccumulator<H>> page = ranked.subList(from, ranked.size());
+
+        List<SearchResponse.SearchResult> results = new ArrayList<>(page.size());
+        for (CourseAccumulator<H> course : page) {
+            results.add(course.toResult(toMatch));
+        }
+
+        String nextCursor = null;
+        if (eligible > limit && !page.isEmpty()) {
+            CourseAccumulator<H> last = page.get(page.size() - 1);
+            nextCursor = new SearchCursor(last.score, last.courseId).encode();
+        }
+
+        return SearchResponse.builder()
+                .query(query.getText())
+                .page(cursor != null ? null : query.getPage())
+                .size(query.getSize())
+                .totalResults(courses.size())
+                .nextCursor(nextCursor)
+                .results(results)
+                .build();
+    }
+
+    private static final class CourseAccumulator<H> {
+        private final String courseId;
+        private final String courseTitle;
+        private final PriorityQueue<ScoredHit<H>> topHits = new PriorityQueue<>(HIT_ORDER.reversed());
+        private double score;
+        private int totalMatches;
+
+        private CourseAccumulator(String courseId, String courseTitle) {
+            this.courseId = courseId;
+            this.courseTitle = courseTitle;
+        }
+
+        private SearchResponse.SearchResult toResult(Function<H, SearchResponse.Match> toMatch) {
+            List<ScoredHit<H>> hits = new ArrayList<>(topHits);
+            hits.sort(HIT_ORDER);
+
+            List<SearchResponse.Match> matches = new ArrayList<>(hits.size());
+            for (ScoredHit<H> hit : hits) {
+                matches.add(toMatch.apply(hit.hit));
+            }
+
+            return SearchResponse.SearchResult.builder()
+                    .courseId(courseId)
+                    .courseTitle(courseTitle)
+                    .score(Math.round(score * 1000.0) / 1000.0)
+                    .totalMatches(totalMatches)
+                    .matches(matches)
+                    .build();
+        }
+    }
+
+    private static final class ScoredHit<H> {
+        private final double score;
+        private final long sequence;
+        private final H hit;
+
+        private ScoredHit(double score, long sequence, H hit) {
+            this.score = score;
+            this.sequence = sequence;
+            this.hit = hit;
+        }
+    }
+}
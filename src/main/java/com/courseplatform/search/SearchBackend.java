@@ -0,0 +1,32 @@
+package com.courseplatform.search;
+
+import com.courseplatform.dto.SearchResponse;
+
+/**
+ * Strategy behind {@code SearchService}. Exactly one implementation is active,
+ * selected with the {@code search.mode} property:
+ * <ul>
+ * <li>{@code index} (default) - in-memory inverted index</li>
+ * <li>{@code like} - {@code LIKE} query against the database, works on any dialect</li>
+ * <li>{@code postgres} - PostgreSQL full-text search over GIN-indexed {@code tsvector} columns</li>
+ * </ul>
+ */
+public interface SearchBackend {
+
+    /**
+     * Returns one page of courses ranked by relevance.
+     */
+    SearchResponse search(SearchQuery query);
+
+    /**
+     * Version of the data this backend currently answers from. Results cached
+     * under a version stay valid until the version changes.
+     */
+    long version();
+
+    /**
+     * Normalizes {@code query} so that two queries with the same key are
+     * guaranteed to produce the same results.
+     */
+    String cacheKey(String query);
+}
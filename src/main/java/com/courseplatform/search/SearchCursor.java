@@ -0,0 +1,47 @@
+package com.courseplatform.search;
+
+import com.courseplatform.exception.BadRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last result of a page in (score desc, course id asc) order,
+ * exchanged with clients as an opaque URL-safe token.
+ */
+@Getter
+@AllArgsConstructor
+public final class SearchCursor {
+
+    private final double score;
+    private final String courseId;
+
+    public String encode() {
+        String raw = Long.toHexString(Double.doubleToLongBits(score)) + ":" + courseId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            double score = Double.longBitsToDouble(Long.parseUnsignedLong(raw.substring(0, separator), 16));
+            if (Double.isNaN(score)) {
+                throw new IllegalArgumentException("NaN score");
+            }
+            return new SearchCursor(score, raw.substring(separator + 1));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid search cursor");
+        }
+    }
+
+    /**
+     * Whether a course with the given score sorts after this cursor.
+     */
+    boolean precedes(double otherScore, String otherCourseId) {
+        int byScore = Double.compare(otherScore, score);
+        return byScore < 0 || (byScore == 0 && otherCourseId.compareTo(courseId) > 0);
+    }
+}
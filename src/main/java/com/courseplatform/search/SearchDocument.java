@@ -0,0 +1,21 @@
+package com.courseplatform.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A single indexed field value. Documents reference their course and topic by
+ * id so that title changes never require re-indexing the subtopics below them.
+ */
+@Getter
+@AllArgsConstructor
+public final class SearchDocument {
+    private final int id;
+    private final SearchField field;
+    private final String courseId;
+    private final String topicId;
+    private final String subtopicId;
+    private final String subtopicTitle;
+    private final String text;
+    private final int length;
+}
@@ -0,0 +1,32 @@
+package com.courseplatform.search;
+
+/**
+ * The catalog fields that are indexed for search, with the weight a match in
+ * each field contributes to a course's relevance score.
+ */
+public enum SearchField {
+    COURSE_TITLE("course", 4.0),
+    COURSE_DESCRIPTION("course", 1.5),
+    TOPIC_TITLE("topic", 3.0),
+    SUBTOPIC_TITLE("subtopic", 2.0),
+    CONTENT("content", 1.0);
+
+    private final String matchType;
+    private final double weight;
+
+    SearchField(String matchType, double weight) {
+        this.matchType = matchType;
+        this.weight = weight;
+    }
+
+    /**
+     * The value exposed as {@code SearchResponse.Match.type}.
+     */
+    public String getMatchType() {
+        return matchType;
+    }
+
+    public double getWeight() {
+        return weight;
+    }
+}
@@ -0,0 +1,20 @@
+package com.courseplatform.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A matching document. {@code matchStart}/{@code matchEnd} delimit the first
+ * occurrence of the query in {@code document.getText()}.
+ */
+@Getter
+@AllArgsConstructor
+public final class SearchHit {
+    private final SearchDocument document;
+    private final CourseEntry course;
+    private final TopicEntry topic;
+    private final int matchStart;
+    private final int matchEnd;
+    private final int occurrences;
+    private final double score;
+}
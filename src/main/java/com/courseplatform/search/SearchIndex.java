@@ -0,0 +1,207 @@
+package com.courseplatform.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Immutable snapshot of the searchable catalog. Instances are never modified
+ * once published, so any number of requests can query the same snapshot
+ * without locking; changes are applied by deriving a new snapshot with
+ * {@link #apply(IndexDelta, long)}.
+ * <p>
+ * Each delta becomes a new segment appended after the existing ones. A
+ * document is live unless a later segment supersedes its unit. Once there are
+ * more than {@value #MAX_SEGMENTS} segments the small trailing segments are
+ * merged, and when they grow comparable to the base segment everything is
+ * compacted into a single segment.
+ */
+public final class SearchIndex {
+
+    static final int MAX_SEGMENTS = 8;
+
+    private final long version;
+    private final Map<String, CourseEntry> courses;
+    private final Map<String, TopicEntry> topics;
+    private final List<IndexSegment> segments;
+    private final int nextCourseOrdinal;
+    private final int nextTopicOrdinal;
+
+    private SearchIndex(long version, Map<String, CourseEntry> courses, Map<String, TopicEntry> topics,
+            List<IndexSegment> segments, int nextCourseOrdinal, int nextTopicOrdinal) {
+        this.version = version;
+        this.courses = courses;
+        this.topics = topics;
+        this.segments = segments;
+        this.nextCourseOrdinal = nextCourseOrdinal;
+        this.nextTopicOrdinal = nextTopicOrdinal;
+    }
+
+    public static SearchIndex empty() {
+        return new SearchIndex(0, Map.of(), Map.of(), List.of(), 0, 0);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    public int getDocumentCount() {
+        return segments.stream().mapToInt(segment -> segment.documents().size()).sum();
+    }
+
+    public int getTermCount() {
+        return segments.stream().mapToInt(IndexSegment::termCount).sum();
+    }
+
+    /**
+     * Streams every live document matching {@code query} to {@code consumer},
+     * scored with BM25 per field and scaled by the field weight. Hits are
+     * produced in index order; ranking is left to the caller.
+     */
+    public void search(String query, Consumer<SearchHit> consumer) {
+        List<String> queryTerms = Tokenizer.terms(query);
+        if (queryTerms.isEmpty()) {
+            return;
+        }
+
+        Scorer scorer = new Scorer(queryTerms);
+        for (int i = 0; i < segments.size(); i++) {
+            int segmentIndex = i;
+            segments.get(i).match(queryTerms, (document, start, end, occurrences) -> {
+                if (!isLive(segmentIndex, document)) {
+                    return;
+                }
+                CourseEntry course = courses.get(document.getCourseId());
+                TopicEntry topic = document.getTopicId() != null ? topics.get(document.getTopicId()) : null;
+                if (course == null || (document.getTopicId() != null && topic == null)) {
+                    return;
+                }
+                consumer.accept(new SearchHit(document, course, topic, start, end, occurrences,
+                        scorer.score(document, occurrences)));
+            });
+        }
+    }
+
+    /**
+     * BM25 with per-field length normalization. A phrase is scored as one
+     * pseudo-term whose IDF is the sum of its terms' IDFs.
+     */
+    private final class Scorer {
+        private static final double K1 = 1.2;
+        private static final double B = 0.75;
+
+        private final double idf;
+        private final double[] averageLengths = new double[SearchField.values().length];
+
+        private Scorer(List<String> queryTerms) {
+            int documentCount = getDocumentCount();
+            double phraseIdf = 0;
+            for (int t = 0; t < queryTerms.size(); t++) {
+                int frequency = 0;
+                for (IndexSegment segment : segments) {
+                    frequency += segment.documentFrequency(queryTerms.get(t), t == queryTerms.size() - 1);
+                }
+                phraseIdf += Math.log(1 + (documentCount - frequency + 0.5) / (frequency + 0.5));
+            }
+            this.idf = phraseIdf;
+
+            for (SearchField field : SearchField.values()) {
+                long documents = 0;
+                long length = 0;
+                for (IndexSegment segment : segments) {
+                    documents += segment.fieldDocuments(field);
+                    length += segment.fieldLength(field);
+                }
+                averageLengths[field.ordinal()] = documents > 0 ? (double) length / documents : 1;
+            }
+        }
+
+        private double score(SearchDocument document, int frequency) {
+            double lengthRatio = document.getLength() / averageLengths[document.getField().ordinal()];
+            double saturation = frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * lengthRatio));
+            return document.getField().getWeight() * idf * saturation;
+        }
+    }
+
+    /**
+     * Returns a new snapshot with {@code delta} applied. This snapshot is left
+     * untouched, so readers holding it are unaffected.
+     */
+    public SearchIndex apply(IndexDelta delta, long newVersion) {
+        Map<String, CourseEntry> nextCourses = new LinkedHashMap<>(courses);
+        Map<String, TopicEntry> nextTopics = new LinkedHashMap<>(topics);
+        int courseOrdinal = nextCourseOrdinal;
+        int topicOrdinal = nextTopicOrdinal;
+
+        delta.removedCourses.forEach(nextCourses::remove);
+        delta.removedTopics.forEach(nextTopics::remove);
+
+        for (Map.Entry<String, String> course : delta.courseTitles.entrySet()) {
+            CourseEntry existing = nextCourses.get(course.getKey());
+            int ordinal = existing != null ? existing.getOrdinal() : courseOrdinal++;
+            nextCourses.put(course.getKey(), new CourseEntry(course.getKey(), course.getValue(), ordinal));
+        }
+        for (TopicEntry topic : delta.topics.values()) {
+            TopicEntry existing = nextTopics.get(topic.getId());
+            int ordinal = existing != null ? existing.getOrdinal() : topicOrdinal++;
+            nextTopics.put(topic.getId(), new TopicEntry(topic.getId(), topic.getCourseId(), topic.getTitle(),
+                    ordinal));
+        }
+
+        List<IndexSegment> nextSegments = new ArrayList<>(segments);
+        nextSegments.add(delta.segment.build());
+
+        return new SearchIndex(newVersion, Collections.unmodifiableMap(nextCourses),
+                Collections.unmodifiableMap(nextTopics), List.copyOf(nextSegments), courseOrdinal, topicOrdinal)
+                .compacted();
+    }
+
+    private SearchIndex compacted() {
+        if (segments.size() <= MAX_SEGMENTS) {
+            return this;
+        }
+
+        int baseDocuments = segments.get(0).documents().size();
+        int tailDocuments = getDocumentCount() - baseDocuments;
+        boolean full = tailDocuments * 2 >= baseDocuments;
+
+        IndexSegment.Builder merged = new IndexSegment.Builder();
+        for (int i = full ? 0 : 1; i < segments.size(); i++) {
+            for (SearchDocument document : segments.get(i).documents()) {
+                if (isLive(i, document) && isReferenced(document)) {
+                    merged.addDocument(document);
+                }
+            }
+            if (!full) {
+                // The merged tail must keep hiding what it replaced in the base
+                merged.supersedeAll(segments.get(i));
+            }
+        }
+
+        List<IndexSegment> nextSegments = full
+                ? List.of(merged.build())
+                : List.of(segments.get(0), merged.build());
+        return new SearchIndex(version, courses, topics, nextSegments, nextCourseOrdinal, nextTopicOrdinal);
+    }
+
+    private boolean isLive(int segmentIndex, SearchDocument document) {
+        for (int i = segmentIndex + 1; i < segments.size(); i++) {
+            if (segments.get(i).supersedes(document)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isReferenced(SearchDocument document) {
+        return courses.containsKey(document.getCourseId())
+                && (document.getTopicId() == null || topics.containsKey(document.getTopicId()));
+    }
+}
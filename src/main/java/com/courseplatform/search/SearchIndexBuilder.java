@@ -0,0 +1,30 @@
+package com.courseplatform.search;
+
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.entity.Topic;
+
+/**
+ * Builds a {@link SearchIndex} from the course graph. The builder only reads
+ * the entities it is given, so callers are responsible for keeping a session
+ * open while lazy associations are walked.
+ */
+public final class SearchIndexBuilder {
+
+    private final IndexDelta delta = new IndexDelta();
+
+    public SearchIndexBuilder addCourse(Course course) {
+        delta.upsertCourse(course);
+        for (Topic topic : course.getTopics()) {
+            delta.upsertTopic(topic);
+            for (Subtopic subtopic : topic.getSubtopics()) {
+                delta.upsertSubtopic(subtopic);
+            }
+        }
+        return this;
+    }
+
+    public SearchIndex build(long version) {
+        return SearchIndex.empty().apply(delta, version);
+    }
+}
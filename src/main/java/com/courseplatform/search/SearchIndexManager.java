@@ -0,0 +1,62 @@
+package com.courseplatform.search;
+
+import com.courseplatform.entity.Course;
+import com.courseplatform.repository.CourseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Owns the current {@link SearchIndex} snapshot. The index is built once the
+ * application is ready (after the seed data has been loaded) and afterwards
+ * only changed through {@link #apply(IndexDelta)}. Readers always see a
+ * complete snapshot; writers are serialized.
+ */
+@Component
+@ConditionalOnProperty(name = "search.mode", havingValue = "index", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndexManager {
+
+    private final CourseRepository courseRepository;
+    private final AtomicLong versions = new AtomicLong();
+
+    private volatile SearchIndex current = SearchIndex.empty();
+
+    public SearchIndex current() {
+        return current;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        long startedAt = System.nanoTime();
+
+        SearchIndexBuilder builder = new SearchIndexBuilder();
+        for (Course course : courseRepository.findAllWithTopics()) {
+            builder.addCourse(course);
+        }
+        SearchIndex index = builder.build(versions.incrementAndGet());
+        current = index;
+
+        log.info("Search index built: {} documents, {} terms in {} ms", index.getDocumentCount(),
+                index.getTermCount(), (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    public synchronized void apply(IndexDelta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        SearchIndex index = current.apply(delta, versions.incrementAndGet());
+        current = index;
+
+        log.debug("Search index updated to version {}: {} segments, {} documents", index.getVersion(),
+                index.getSegmentCount(), index.getDocumentCount());
+    }
+}
@@ -0,0 +1,126 @@
+package com.courseplatform.search;
+
+import com.courseplatform.catalog.CatalogChangeSet;
+import com.courseplatform.catalog.CatalogChangedEvent;
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.entity.Topic;
+import com.courseplatform.repository.CourseRepository;
+import com.courseplatform.repository.SubtopicRepository;
+import com.courseplatform.repository.TopicRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the search index in step with the catalog. Committed changes are
+ * queued as ids and flushed periodically: each flush loads only the changed
+ * rows, turns them into a single {@link IndexDelta} and publishes the
+ * resulting snapshot, so bursts of edits cost one snapshot swap.
+ */
+@Component
+@ConditionalOnProperty(name = "search.mode", havingValue = "index", matchIfMissing = true)
+@Slf4j
+public class SearchIndexUpdater {
+
+    private final SearchIndexManager searchIndexManager;
+    private final CourseRepository courseRepository;
+    private final TopicRepository topicRepository;
+    private final SubtopicRepository subtopicRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final CatalogChangeSet pending = new CatalogChangeSet();
+
+    public SearchIndexUpdater(SearchIndexManager searchIndexManager, CourseRepository courseRepository,
+            TopicRepository topicRepository, SubtopicRepository subtopicRepository,
+            PlatformTransactionManager transactionManager) {
+        this.searchIndexManager = searchIndexManager;
+        this.courseRepository = courseRepository;
+        this.topicRepository = topicRepository;
+        this.subtopicRepository = subtopicRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        synchronized (pending) {
+            pending.addAll(event);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.index.flush-interval-ms:500}")
+    public void flush() {
+        CatalogChangedEvent batch;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending.drain();
+        }
+
+        try {
+            IndexDelta delta = transactionTemplate.execute(status -> loadDelta(batch));
+            searchIndexManager.apply(delta);
+        } catch (RuntimeException e) {
+            // Requeue so the changes are retried on the next flush
+            onCatalogChanged(batch);
+            log.error("Failed to update search index, will retry: {}", e.getMessage());
+        }
+    }
+
+    private IndexDelta loadDelta(CatalogChangedEvent batch) {
+        IndexDelta delta = new IndexDelta();
+
+        Map<String, Course> courses = findAll(courseRepository, batch.getCourseIds(), Course::getId);
+        for (String courseId : batch.getCourseIds()) {
+            Course course = courses.get(courseId);
+            if (course != null) {
+                delta.upsertCourse(course);
+            } else {
+                delta.removeCourse(courseId);
+            }
+        }
+
+        Map<String, Topic> topics = findAll(topicRepository, batch.getTopicIds(), Topic::getId);
+        for (String topicId : batch.getTopicIds()) {
+            Topic topic = topics.get(topicId);
+            if (topic != null) {
+                delta.upsertTopic(topic);
+            } else {
+                delta.removeTopic(topicId);
+            }
+        }
+
+        Map<String, Subtopic> subtopics = findAll(subtopicRepository, batch.getSubtopicIds(), Subtopic::getId);
+        for (String subtopicId : batch.getSubtopicIds()) {
+            Subtopic subtopic = subtopics.get(subtopicId);
+            if (subtopic != null) {
+                delta.upsertSubtopic(subtopic);
+            } else {
+                delta.removeSubtopic(subtopicId);
+            }
+        }
+
+        return delta;
+    }
+
+    private static <T> Map<String, T> findAll(JpaRepository<T, String> repository, Set<String> ids,
+            Function<T, String> idGetter) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(idGetter, Function.identity()));
+    }
+}
@@ -0,0 +1,17 @@
+package com.courseplatform.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A validated search request. When {@code cursor} is set it takes precedence
+ * over {@code page}: results start right after the cursor position.
+ */
+@Getter
+@AllArgsConstructor
+public final class SearchQuery {
+    private final String text;
+    private final int page;
+    private final int size;
+    private final SearchCursor cursor;
+}
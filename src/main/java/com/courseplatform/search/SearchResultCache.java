@@ -0,0 +1,85 @@
+package com.courseplatform.search;
+
+import com.courseplatform.dto.SearchResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of search pages in front of the active {@link SearchBackend}.
+ * Keys combine the backend-normalized query, the page coordinates and the
+ * backend's data version, so a catalog change makes every older entry
+ * unreachable; those entries are never served and simply age out.
+ * <p>
+ * Caffeine provides W-TinyLFU admission, so one-off queries do not push
+ * popular ones out. The bound is an estimate of retained bytes, and hit, miss
+ * and eviction counts are published as {@code cache.*} metrics with
+ * {@code cache=search.results}.
+ */
+@Component
+public class SearchResultCache {
+
+    private final Cache<Key, SearchResponse> cache;
+
+    public SearchResultCache(@Value("${search.cache.max-bytes:16777216}") long maxBytes,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, SearchResponse response) -> estimateBytes(key, response))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "search.results");
+    }
+
+    public SearchResponse get(SearchBackend backend, SearchQuery query, Supplier<SearchResponse> loader) {
+        // Read the version before searching: a result computed from newer data
+        // under an older version is harmless, the reverse would serve stale data
+        Key key = new Key(backend.version(), backend.cacheKey(query.getText()), query.getPage(), query.getSize(),
+                query.getCursor() != null ? query.getCursor().encode() : null);
+        SearchResponse cached = cache.get(key, ignored -> loader.get());
+
+        // The echoed query is the caller's own text, not the normalized key
+        return SearchResponse.builder()
+                .query(query.getText())
+                .page(cached.getPage())
+                .size(cached.getSize())
+                .totalResults(cached.getTotalResults())
+                .nextCursor(cached.getNextCursor())
+                .results(cached.getResults())
+                .build();
+    }
+
+    private static int estimateBytes(Key key, SearchResponse response) {
+        long bytes = 96 + 2L * key.query.length();
+        for (SearchResponse.SearchResult result : response.getResults()) {
+            bytes += 64 + 2L * (length(result.getCourseId()) + length(result.getCourseTitle()));
+            for (SearchResponse.Match match : result.getMatches()) {
+                bytes += 96 + 2L * (length(match.getTopicTitle()) + length(match.getSubtopicId())
+                        + length(match.getSubtopicTitle()) + length(match.getSnippet()));
+                bytes += 32L * (match.getHighlights() != null ? match.getHighlights().size() : 0);
+            }
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class Key {
+        private final long version;
+        private final String query;
+        private final int page;
+        private final int size;
+        private final String cursor;
+    }
+}
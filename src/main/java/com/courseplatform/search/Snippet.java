@@ -0,0 +1,16 @@
+package com.courseplatform.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Snippet text plus the highlighted range of the match, as offsets into
+ * {@code text}.
+ */
+@Getter
+@AllArgsConstructor
+public final class Snippet {
+    private final String text;
+    private final int highlightStart;
+    private final int highlightEnd;
+}
@@ -0,0 +1,76 @@
+package com.courseplatform.search;
+
+/**
+ * Cuts snippets around a known match range. Only the snippet window is copied
+ * out of the source text; the document itself is never lowercased or
+ * duplicated.
+ */
+public final class SnippetGenerator {
+
+    static final int CONTEXT_LENGTH = 50;
+    static final int MAX_SNIPPET_LENGTH = 150;
+    private static final String ELLIPSIS = "...";
+
+    private SnippetGenerator() {
+    }
+
+    /**
+     * Returns the whole text with the match highlighted; used for titles.
+     */
+    public static Snippet whole(String text, int matchStart, int matchEnd) {
+        return new Snippet(text, matchStart, matchEnd);
+    }
+
+    /**
+     * Returns up to {@value #CONTEXT_LENGTH} characters of context on either
+     * side of the match, with ellipses where the text was cut.
+     */
+    public static Snippet around(String text, int matchStart, int matchEnd) {
+        if (matchStart < 0 || matchEnd > text.length() || matchStart > matchEnd) {
+            return leading(text);
+        }
+
+        int start = Math.max(0, matchStart - CONTEXT_LENGTH);
+        int end = Math.min(text.length(), matchEnd + CONTEXT_LENGTH);
+        boolean cutStart = start > 0;
+        boolean cutEnd = end < text.length();
+
+        StringBuilder snippet = new StringBuilder(end - start + (cutStart ? ELLIPSIS.length() : 0)
+                + (cutEnd ? ELLIPSIS.length() : 0));
+        if (cutStart) {
+            snippet.append(ELLIPSIS);
+        }
+        int shift = snippet.length() - start;
+        snippet.append(text, start, end);
+        if (cutEnd) {
+            snippet.append(ELLIPSIS);
+        }
+
+        return new Snippet(snippet.toString(), matchStart + shift, matchEnd + shift);
+    }
+
+    /**
+     * Case-insensitive {@code indexOf} that compares in place instead of
+     * lowercasing a copy of {@code text}. Returns -1 when there is no match.
+     */
+    public static int indexOfIgnoreCase(String text, String query) {
+        int last = text.length() - query.length();
+        for (int i = 0; i <= last; i++) {
+            if (text.regionMatches(true, i, query, 0, query.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Snippet leading(String text) {
+        if (text.length() <= MAX_SNIPPET_LENGTH) {
+            return new Snippet(text, -1, -1);
+        }
+        String snippet = new StringBuilder(MAX_SNIPPET_LENGTH + ELLIPSIS.length())
+                .append(text, 0, MAX_SNIPPET_LENGTH)
+                .append(ELLIPSIS)
+                .toString();
+        return new Snippet(snippet, -1, -1);
+    }
+}
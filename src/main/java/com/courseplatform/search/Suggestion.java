@@ -0,0 +1,28 @@
+package com.courseplatform.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A completion candidate. {@code priority} orders suggestion types: lower
+ * values are offered first.
+ */
+@Getter
+@AllArgsConstructor
+public final class Suggestion {
+
+    public static final int COURSE = 0;
+    public static final int TOPIC = 1;
+    public static final int SUBTOPIC = 2;
+
+    private static final String[] TYPES = { "course", "topic", "subtopic" };
+
+    private final int priority;
+    private final String id;
+    private final String title;
+    private final String courseId;
+
+    public String getType() {
+        return TYPES[priority];
+    }
+}
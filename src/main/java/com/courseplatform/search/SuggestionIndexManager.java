@@ -0,0 +1,112 @@
+package com.courseplatform.search;
+
+import com.courseplatform.catalog.CatalogChangeSet;
+import com.courseplatform.catalog.CatalogChangedEvent;
+import com.courseplatform.repository.CatalogTitle;
+import com.courseplatform.repository.CourseRepository;
+import com.courseplatform.repository.SubtopicRepository;
+import com.courseplatform.repository.TopicRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Owns the {@link SuggestionTrie} used for typeahead. Only titles are read
+ * from the database: all of them at startup, and afterwards just the rows
+ * named in {@link CatalogChangedEvent}s, which are batched and applied on a
+ * schedule. The trie itself is rebuilt from the in-memory titles.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SuggestionIndexManager {
+
+    private final CourseRepository courseRepository;
+    private final TopicRepository topicRepository;
+    private final SubtopicRepository subtopicRepository;
+
+    private final CatalogChangeSet pending = new CatalogChangeSet();
+    private final Map<String, Suggestion> courses = new HashMap<>();
+    private final Map<String, Suggestion> topics = new HashMap<>();
+    private final Map<String, Suggestion> subtopics = new HashMap<>();
+
+    private volatile SuggestionTrie current = SuggestionTrie.empty();
+
+    public SuggestionTrie current() {
+        return current;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        courses.clear();
+        topics.clear();
+        subtopics.clear();
+        put(courses, Suggestion.COURSE, courseRepository.findAllTitles());
+        put(topics, Suggestion.TOPIC, topicRepository.findAllTitles());
+        put(subtopics, Suggestion.SUBTOPIC, subtopicRepository.findAllTitles());
+        publish();
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        synchronized (pending) {
+            pending.addAll(event);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.suggest.flush-interval-ms:500}")
+    public synchronized void flush() {
+        CatalogChangedEvent batch;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending.drain();
+        }
+
+        try {
+            refresh(courses, Suggestion.COURSE, batch.getCourseIds(), courseRepository::findTitlesByIdIn);
+            refresh(topics, Suggestion.TOPIC, batch.getTopicIds(), topicRepository::findTitlesByIdIn);
+            refresh(subtopics, Suggestion.SUBTOPIC, batch.getSubtopicIds(), subtopicRepository::findTitlesByIdIn);
+            publish();
+        } catch (RuntimeException e) {
+            onCatalogChanged(batch);
+            log.error("Failed to refresh suggestions, will retry: {}", e.getMessage());
+        }
+    }
+
+    private void refresh(Map<String, Suggestion> entries, int priority, Set<String> ids,
+            Function<Set<String>, List<CatalogTitle>> loader) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        // Ids that no longer load were deleted
+        ids.forEach(entries::remove);
+        put(entries, priority, loader.apply(ids));
+    }
+
+    private void put(Map<String, Suggestion> entries, int priority, List<CatalogTitle> titles) {
+        for (CatalogTitle title : titles) {
+            entries.put(title.getId(), new Suggestion(priority, title.getId(), title.getTitle(), title.getCourseId()));
+        }
+    }
+
+    private void publish() {
+        List<Suggestion> all = new ArrayList<>(courses.size() + topics.size() + subtopics.size());
+        all.addAll(courses.values());
+        all.addAll(topics.values());
+        all.addAll(subtopics.values());
+        current = SuggestionTrie.build(all);
+        log.debug("Suggestion trie rebuilt with {} titles", all.size());
+    }
+}
@@ -0,0 +1,241 @@
+package com.courseplatform.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable radix trie over every word-start suffix of the catalog titles, so
+ * "laws" completes "Newton's Laws of Motion" as well as "newton". Each node
+ * stores its best completions precomputed, which makes a lookup cost one walk
+ * down the prefix regardless of how many titles share it.
+ * <p>
+ * Nodes are flattened into parallel primitive arrays in breadth-first order:
+ * the children of a node are contiguous and sorted by their first character,
+ * edge labels live in one shared {@code char[]}, and precomputed completions
+ * are indices into the suggestion array, which is sorted best first.
+ */
+public final class SuggestionTrie {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final Comparator<Suggestion> RANK_ORDER = Comparator
+            .comparingInt(Suggestion::getPriority)
+            .thenComparingInt(suggestion -> suggestion.getTitle().length())
+            .thenComparing(Suggestion::getTitle, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(Suggestion::getId);
+
+    private final Suggestion[] suggestions;
+    private final char[] labels;
+    private final int[] labelStart;
+    private final int[] labelLength;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[] completions;
+    private final int[] completionStart;
+    private final int[] completionCount;
+
+    private SuggestionTrie(Suggestion[] suggestions, char[] labels, int[] labelStart, int[] labelLength,
+            int[] firstChild, int[] childCount, int[] completions, int[] completionStart, int[] completionCount) {
+        this.suggestions = suggestions;
+        this.labels = labels;
+        this.labelStart = labelStart;
+        this.labelLength = labelLength;
+        this.firstChild = firstChild;
+        this.childCount = childCount;
+        this.completions = completions;
+        this.completionStart = completionStart;
+        this.completionCount = completionCount;
+    }
+
+    public static SuggestionTrie empty() {
+        return build(List.of());
+    }
+
+    public int size() {
+        return suggestions.length;
+    }
+
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+
+        int node = 0;
+        int position = 0;
+        while (position < key.length()) {
+            int child = findChild(node, key.charAt(position));
+            if (child < 0) {
+                return List.of();
+            }
+            int length = Math.min(labelLength[child], key.length() - position);
+            for (int i = 0; i < length; i++) {
+                if (labels[labelStart[child] + i] != key.charAt(position + i)) {
+                    return List.of();
+                }
+            }
+            position += length;
+            node = child;
+        }
+
+        int count = Math.min(limit, completionCount[node]);
+        List<Suggestion> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(suggestions[completions[completionStart[node] + i]]);
+        }
+        return result;
+    }
+
+    private int findChild(int node, char c) {
+        int low = firstChild[node];
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char first = labels[labelStart[mid]];
+            if (first < c) {
+                low = mid + 1;
+            } else if (first > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    static String normalize(String text) {
+        return Tokenizer.fold(text.stripLeading());
+    }
+
+    public static SuggestionTrie build(List<Suggestion> candidates) {
+        Suggestion[] ranked = candidates.toArray(new Suggestion[0]);
+        Arrays.sort(ranked, RANK_ORDER);
+
+        List<Key> keys = new ArrayList<>();
+        for (int i = 0; i < ranked.length; i++) {
+            int suggestion = i;
+            String title = ranked[i].getTitle();
+            Tokenizer.tokenize(title, (term, position, start, end) ->
+                    keys.add(new Key(normalize(title.substring(start)), suggestion)));
+        }
+        keys.sort(Comparator.comparing((Key key) -> key.text).thenComparingInt(key -> key.suggestion));
+
+        Node root = new Node("");
+        buildNode(root, keys, 0, keys.size(), 0);
+        return flatten(ranked, root);
+    }
+
+    private static void buildNode(Node node, List<Key> keys, int from, int to, int depth) {
+        int i = from;
+        while (i < to && keys.get(i).text.length() == depth) {
+            node.addCompletion(keys.get(i).suggestion);
+            i++;
+        }
+
+        while (i < to) {
+            char c = keys.get(i).text.charAt(depth);
+            int j = i + 1;
+            while (j < to && keys.get(j).text.charAt(depth) == c) {
+                j++;
+            }
+
+            // Keys are sorted, so the first and last of the run bound their common prefix
+            String first = keys.get(i).text;
+            String last = keys.get(j - 1).text;
+            int end = depth + 1;
+            while (end < first.length() && end < last.length() && first.charAt(end) == last.charAt(end)) {
+                end++;
+            }
+
+            Node child = new Node(first.substring(depth, end));
+            buildNode(child, keys, i, j, end);
+            node.children.add(child);
+            for (int completion : child.completions) {
+                node.addCompletion(completion);
+            }
+            i = j;
+        }
+    }
+
+    private static SuggestionTrie flatten(Suggestion[] ranked, Node root) {
+        List<Node> order = new ArrayList<>();
+        order.add(root);
+        for (int i = 0; i < order.size(); i++) {
+            order.addAll(order.get(i).children);
+        }
+
+        int nodes = order.size();
+        int[] labelStart = new int[nodes];
+        int[] labelLength = new int[nodes];
+        int[] firstChild = new int[nodes];
+        int[] childCount = new int[nodes];
+        int[] completionStart = new int[nodes];
+        int[] completionCount = new int[nodes];
+        StringBuilder labels = new StringBuilder();
+        int[] completions = new int[order.stream().mapToInt(node -> node.completions.size()).sum()];
+
+        int nextChild = 1;
+        int nextCompletion = 0;
+        for (int i = 0; i < nodes; i++) {
+            Node node = order.get(i);
+            labelStart[i] = labels.length();
+            labelLength[i] = node.label.length();
+            labels.append(node.label);
+            firstChild[i] = nextChild;
+            childCount[i] = node.children.size();
+            nextChild += node.children.size();
+            completionStart[i] = nextCompletion;
+            completionCount[i] = node.completions.size();
+            for (int completion : node.completions) {
+                completions[nextCompletion++] = completion;
+            }
+        }
+
+        char[] labelChars = new char[labels.length()];
+        labels.getChars(0, labels.length(), labelChars, 0);
+        return new SuggestionTrie(ranked, labelChars, labelStart, labelLength, firstChild, childCount,
+                completions, completionStart, completionCount);
+    }
+
+    private static final class Key {
+        private final String text;
+        private final int suggestion;
+
+        private Key(String text, int suggestion) {
+            this.text = text;
+            this.suggestion = suggestion;
+        }
+    }
+
+    private static final class Node {
+        private final String label;
+        private final List<Node> children = new ArrayList<>();
+        private final List<Integer> completions = new ArrayList<>();
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Keeps the best {@link #MAX_SUGGESTIONS} distinct suggestions. Indices
+         * are ranks, so a smaller index is a better suggestion.
+         */
+        private void addCompletion(int suggestion) {
+            int index = 0;
+            while (index < completions.size() && completions.get(index) < suggestion) {
+                index++;
+            }
+            if (index < completions.size() && completions.get(index) == suggestion) {
+                return;
+            }
+            if (index < MAX_SUGGESTIONS) {
+                completions.add(index, suggestion);
+                if (completions.size() > MAX_SUGGESTIONS) {
+                    completions.remove(MAX_SUGGESTIONS);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.courseplatform.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into case-folded terms made of letters and digits. Every term is
+ * reported with its position and its character offsets in the original text,
+ * so callers never need to keep a lowercased copy of the document.
+ */
+public final class Tokenizer {
+
+    private Tokenizer() {
+    }
+
+    @FunctionalInterface
+    public interface TokenConsumer {
+        void accept(String term, int position, int start, int end);
+    }
+
+    public static int tokenize(String text, TokenConsumer consumer) {
+        if (text == null) {
+            return 0;
+        }
+
+        int position = 0;
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !isTermChar(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && isTermChar(text.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                consumer.accept(fold(text.substring(start, i)), position++, start, i);
+            }
+        }
+        return position;
+    }
+
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        tokenize(text, (term, position, start, end) -> terms.add(term));
+        return terms;
+    }
+
+    /**
+     * Lowercases {@code text}, applying NFKC compatibility normalization first
+     * when it contains non-ASCII characters (so ligatures, full-width forms and
+     * composed accents compare equal to their plain equivalents).
+     */
+    public static String fold(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+            }
+        }
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    // Combining marks stay in the term so a decomposed accent folds like a composed one
+    private static boolean isTermChar(char c) {
+        if (Character.isLetterOrDigit(c)) {
+            return true;
+        }
+        int type = Character.getType(c);
+        return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK
+                || type == Character.ENCLOSING_MARK;
+    }
+}
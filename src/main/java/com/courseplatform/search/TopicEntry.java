@@ -0,0 +1,13 @@
+package com.courseplatform.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public final class TopicEntry {
+    private final String id;
+    private final String courseId;
+    private final String title;
+    private final int ordinal;
+}
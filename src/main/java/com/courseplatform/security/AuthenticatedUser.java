@@ -0,0 +1,32 @@
+package com.courseplatform.security;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * Principal of an authenticated request. Carries just enough to act on the
+ * user's behalf, so services never have to load the {@code User} entity to
+ * find out who is calling.
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class AuthenticatedUser implements AuthenticatedPrincipal {
+
+    private final Long id;
+    private final String email;
+    private final int tokenVersion;
+
+    public AuthenticatedUser(Long id, String email, int tokenVersion) {
+        this.id = id;
+        this.email = email;
+        this.tokenVersion = tokenVersion;
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
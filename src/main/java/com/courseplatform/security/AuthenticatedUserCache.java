@@ -0,0 +1,47 @@
+package com.courseplatform.security;
+
+import com.courseplatform.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded, time-limited cache of email to {@link AuthenticatedUser}, so a
+ * lookup hits the database at most once per user and TTL. It resolves tokens
+ * issued before user ids were embedded and backs the optional token-version
+ * check; the TTL bounds how long a revocation made on another instance, or a
+ * deleted account, goes unnoticed. Setting the maximum size to 0 disables
+ * caching.
+ */
+@Component
+public class AuthenticatedUserCache {
+
+    private final LoadingCache<String, Optional<AuthenticatedUser>> cache;
+
+    public AuthenticatedUserCache(UserRepository userRepository,
+            @Value("${security.user-cache.max-size:10000}") long maxSize,
+            @Value("${security.user-cache.ttl-seconds:300}") long ttlSeconds,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build(email -> userRepository.findByEmail(email)
+                        .map(user -> new AuthenticatedUser(user.getId(), user.getEmail(), user.getTokenVersion())));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "security.users");
+    }
+
+    public Optional<AuthenticatedUser> find(String email) {
+        return cache.get(email);
+    }
+
+    public void evict(String email) {
+        cache.invalidate(email);
+    }
+}
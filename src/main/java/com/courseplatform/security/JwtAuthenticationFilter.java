@@ -1,26 +1,50 @@
 package com.courseplatform.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.servlet.HandlerExceptionResolver;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
+/**
+ * Authenticates requests from the bearer token alone: the principal is built
+ * from the verified claims, so the common path does no database work. Tokens
+ * issued before the user id was embedded, and the token-version check that
+ * enforces revocation ({@code security.jwt.verify-token-version}, on by
+ * default), consult the {@link AuthenticatedUserCache}, which queries at most
+ * once per user and TTL. When that lookup cannot get a connection, the
+ * request is answered like any other database timeout (503) rather than
+ * continuing unauthenticated.
+ */
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
+    private final AuthenticatedUserCache authenticatedUserCache;
+    private final HandlerExceptionResolver handlerExceptionResolver;
+    private final boolean verifyTokenVersion;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, AuthenticatedUserCache authenticatedUserCache,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver,
+            @Value("${security.jwt.verify-token-version:true}") boolean verifyTokenVersion) {
+        this.jwtUtil = jwtUtil;
+        this.authenticatedUserCache = authenticatedUserCache;
+        this.handlerExceptionResolver = handlerExceptionResolver;
+        this.verifyTokenVersion = verifyTokenVersion;
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -28,7 +52,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -38,20 +61,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
 
         try {
-            userEmail = jwtUtil.extractEmail(jwt);
-
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                AuthenticatedUser user = resolveUser(jwtUtil.extractAllClaims(jwt));
 
-                if (jwtUtil.validateToken(jwt, userDetails)) {
+                if (user != null) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
+                            user,
                             null,
-                            userDetails.getAuthorities());
+                            List.of());
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
             }
+        } catch (CannotCreateTransactionException | DataAccessResourceFailureException e) {
+            handlerExceptionResolver.resolveException(request, response, null, e);
+            return;
         } catch (Exception e) {
             // Log the exception but continue the filter chain
             logger.error("JWT authentication failed: " + e.getMessage());
@@ -59,4 +83,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private AuthenticatedUser resolveUser(Claims claims) {
+        AuthenticatedUser user = jwtUtil.toPrincipal(claims);
+        if (user == null) {
+            // Issued before ids were embedded; such tokens count as version 0
+            AuthenticatedUser current = authenticatedUserCache.find(claims.getSubject()).orElse(null);
+            return current != null && current.getTokenVersion() == 0 ? current : null;
+        }
+        if (verifyTokenVersion) {
+            AuthenticatedUser current = authenticatedUserCache.find(user.getEmail()).orElse(null);
+            if (current == null || current.getTokenVersion() != user.getTokenVersion()) {
+                return null;
+            }
+        }
+        return user;
+    }
 }
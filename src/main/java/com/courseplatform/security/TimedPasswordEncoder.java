@@ -0,0 +1,47 @@
+package com.courseplatform.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Records the latency of every hash and verification as the
+ * {@code auth.password.hash} timer, tagged by operation and the encoder used
+ * for new hashes.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, String encoderId, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = timer(meterRegistry, encoderId, "encode");
+        this.matchesTimer = timer(meterRegistry, encoderId, "matches");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return Boolean.TRUE.equals(matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String encoderId, String operation) {
+        return Timer.builder("auth.password.hash")
+                .description("Password hashing and verification latency")
+                .tag("operation", operation)
+                .tag("encoder", encoderId)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
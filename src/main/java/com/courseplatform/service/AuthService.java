@@ -5,15 +5,26 @@ import com.courseplatform.dto.LoginResponse;
 import com.courseplatform.dto.RegisterRequest;
 import com.courseplatform.dto.RegisterResponse;
 import com.courseplatform.entity.User;
+import com.courseplatform.exception.ResourceNotFoundException;
 import com.courseplatform.repository.UserRepository;
+import com.courseplatform.security.AuthenticatedUser;
+import com.courseplatform.security.AuthenticatedUserCache;
 import com.courseplatform.security.JwtUtil;
+import com.courseplatform.security.PasswordHashingExecutor;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 @Service
 @RequiredArgsConstructor
 public class AuthService {
@@ -21,43 +32,105 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
-    private final AuthenticationManager authenticationManager;
+    private final UserDetailsPasswordService userDetailsPasswordService;
+    private final AuthenticatedUserCache authenticatedUserCache;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private final Executor applicationTaskExecutor;
 
-    @Transactional
-    public RegisterResponse register(RegisterRequest request) {
+    @Value("${security.jwt.verify-token-version:true}")
+    private boolean verifyTokenVersion;
+
+    // Checked against when the email is unknown, so a miss costs as much as a wrong password
+    private volatile String unknownUserHash;
+
+    /**
+     * Hashing runs on the {@link PasswordHashingExecutor}; the account is then
+     * saved on the application task executor so a slow connection pool cannot
+     * hold up hashing threads. The request thread is released meanwhile.
+     */
+    public CompletableFuture<RegisterResponse> register(RegisterRequest request) {
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new RuntimeException("Email already exists");
         }
 
-        User user = User.builder()
-                .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
-                .build();
+        return passwordHashingExecutor.submit(() -> passwordEncoder.encode(request.getPassword()))
+                .thenApplyAsync(passwordHash -> {
+                    User user = User.builder()
+                            .email(request.getEmail())
+                            .password(passwordHash)
+                            .build();
 
-        User savedUser = userRepository.save(user);
+                    User savedUser = userRepository.save(user);
 
-        return RegisterResponse.builder()
-                .id(savedUser.getId())
-                .email(savedUser.getEmail())
-                .message("User registered successfully")
-                .build();
+                    return RegisterResponse.builder()
+                            .id(savedUser.getId())
+                            .email(savedUser.getEmail())
+                            .message("User registered successfully")
+                            .build();
+                }, applicationTaskExecutor);
     }
 
-    public LoginResponse login(LoginRequest request) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getEmail(),
-                        request.getPassword()));
+    /**
+     * The account is looked up on the request thread and only the password
+     * check, plus a re-hash if the stored hash is outdated, runs on the
+     * {@link PasswordHashingExecutor}. Saving an upgraded hash and issuing the
+     * token happen on the application task executor.
+     */
+    public CompletableFuture<LoginResponse> login(LoginRequest request) {
+        User user = userRepository.findByEmail(request.getEmail()).orElse(null);
+
+        return passwordHashingExecutor.submit(() -> checkPassword(user, request.getPassword()))
+                .thenApplyAsync(upgradedHash -> {
+                    if (upgradedHash != null) {
+                        userDetailsPasswordService.updatePassword(user, upgradedHash);
+                    }
+
+                    String token = jwtUtil.generateToken(user);
 
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                    return LoginResponse.builder()
+                            .token(token)
+                            .email(user.getEmail())
+                            .expiresIn(jwtUtil.getExpirationTime())
+                            .build();
+                }, applicationTaskExecutor);
+    }
 
-        String token = jwtUtil.generateToken(user);
+    /**
+     * Returns a fresh hash when the stored one should be upgraded, otherwise
+     * {@code null}. Throws {@link BadCredentialsException} on a mismatch or an
+     * unknown email.
+     */
+    private String checkPassword(User user, String rawPassword) {
+        if (user == null) {
+            String hash = unknownUserHash;
+            if (hash == null) {
+                hash = passwordEncoder.encode("unknown-user-password");
+                unknownUserHash = hash;
+            }
+            passwordEncoder.matches(rawPassword, hash);
+            throw new BadCredentialsException("Bad credentials");
+        }
+        if (!passwordEncoder.matches(rawPassword, user.getPassword())) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        return passwordEncoder.upgradeEncoding(user.getPassword()) ? passwordEncoder.encode(rawPassword) : null;
+    }
 
-        return LoginResponse.builder()
-                .token(token)
-                .email(user.getEmail())
-                .expiresIn(jwtUtil.getExpirationTime())
-                .build();
+    /**
+     * Invalidates every token issued to the current user so far. Refused when
+     * {@code security.jwt.verify-token-version} is off, since the old tokens
+     * would keep being accepted.
+     */
+    @Transactional
+    public void revokeTokens() {
+        if (!verifyTokenVersion) {
+            throw new ResourceNotFoundException("Token revocation is disabled");
+        }
+        AuthenticatedUser user = (AuthenticatedUser) SecurityContextHolder.getContext()
+                .getAuthentication()
+                .getPrincipal();
+        userRepository.incrementTokenVersion(user.getId());
+        authenticatedUserCache.evict(user.getEmail());
     }
 }
@@ -1,87 +1,41 @@
 package com.courseplatform.service;
 
-import com.courseplatform.dto.CourseDetailResponse;
-import com.courseplatform.dto.CourseListResponse;
-import com.courseplatform.dto.CoursesResponse;
-import com.courseplatform.entity.Course;
-import com.courseplatform.entity.Topic;
+import com.courseplatform.catalog.CatalogCourse;
+import com.courseplatform.catalog.CatalogSnapshotManager;
+import com.courseplatform.catalog.RenderedResponse;
 import com.courseplatform.exception.ResourceNotFoundException;
-import com.courseplatform.repository.CourseRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
-import java.util.List;
-import java.util.stream.Collectors;
 
+/**
+ * Serves the public catalog from the current {@code CatalogSnapshot}; no
+ * request opens a transaction, maps entities or serializes JSON.
+ */
 @Service
 @RequiredArgsConstructor
 public class CourseService {
 
-    private final CourseRepository courseRepository;
-
-    @Transactional(readOnly = true)
-    public CoursesResponse getAllCourses() {
-        List<Course> courses = courseRepository.findAll();
-
-        List<CourseListResponse> courseList = courses.stream()
-                .map(this::mapToCourseListResponse)
-                .collect(Collectors.toList());
+    private final CatalogSnapshotManager catalogSnapshotManager;
 
-        return CoursesResponse.builder()
-                .courses(courseList)
-                .build();
+    public RenderedResponse getAllCourses() {
+        return catalogSnapshotManager.current().getCourseList();
     }
 
-    @Transactional(readOnly = true)
-    public CourseDetailResponse getCourseById(String id) {
-        Course course = courseRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Course with id '" + id + "' does not exist"));
-
-        return mapToCourseDetailResponse(course);
+    public RenderedResponse getCourseById(String id) {
+        return findCourse(id).getFull();
     }
 
-    private CourseListResponse mapToCourseListResponse(Course course) {
-        int topicCount = course.getTopics().size();
-        int subtopicCount = course.getTopics().stream()
-                .mapToInt(topic -> topic.getSubtopics().size())
-                .sum();
-
-        return CourseListResponse.builder()
-                .id(course.getId())
-                .title(course.getTitle())
-                .description(course.getDescription())
-                .topicCount(topicCount)
-                .subtopicCount(subtopicCount)
-                .build();
+    public RenderedResponse getCourseOutline(String id) {
+        return findCourse(id).getOutline();
     }
 
-    private CourseDetailResponse mapToCourseDetailResponse(Course course) {
-        List<CourseDetailResponse.TopicDto> topics = course.getTopics().stream()
-                .map(this::mapToTopicDto)
-                .collect(Collectors.toList());
-
-        return CourseDetailResponse.builder()
-                .id(course.getId())
-                .title(course.getTitle())
-                .description(course.getDescription())
-                .topics(topics)
-                .build();
+    public byte[] getSubtopicContent(String subtopicId) {
+        return catalogSnapshotManager.current().findSubtopicContent(subtopicId)
+                .orElseThrow(() -> new ResourceNotFoundException("Subtopic with id '" + subtopicId + "' does not exist"));
     }
 
-    private CourseDetailResponse.TopicDto mapToTopicDto(Topic topic) {
-        List<CourseDetailResponse.SubtopicDto> subtopics = topic.getSubtopics().stream()
-                .map(subtopic -> CourseDetailResponse.SubtopicDto.builder()
-                        .id(subtopic.getId())
-                        .title(subtopic.getTitle())
-                        .content(subtopic.getContent())
-                        .build())
-                .collect(Collectors.toList());
-
-        return CourseDetailResponse.TopicDto.builder()
-                .id(topic.getId())
-                .title(topic.getTitle())
-                .subtopics(subtopics)
-                .build();
+    private CatalogCourse findCourse(String id) {
+        return catalogSnapshotManager.current().findCourse(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Course with id '" + id + "' does not exist"));
     }
 }
@@ -1,23 +1,29 @@
 package com.courseplatform.service;
 
+import com.courseplatform.catalog.CatalogRouter;
+import com.courseplatform.dto.EnrollmentListResponse;
 import com.courseplatform.dto.EnrollmentResponse;
+import com.courseplatform.dto.EnrollmentsResponse;
 import com.courseplatform.dto.ProgressResponse;
+import com.courseplatform.enrollment.EnrollmentMembership;
 import com.courseplatform.entity.Course;
 import com.courseplatform.entity.Enrollment;
-import com.courseplatform.entity.SubtopicProgress;
-import com.courseplatform.entity.User;
+import com.courseplatform.exception.BadRequestException;
 import com.courseplatform.exception.DuplicateEnrollmentException;
 import com.courseplatform.exception.ResourceNotFoundException;
-import com.courseplatform.repository.CourseRepository;
 import com.courseplatform.repository.EnrollmentRepository;
 import com.courseplatform.repository.SubtopicProgressRepository;
-import com.courseplatform.repository.UserRepository;
+import com.courseplatform.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,72 +31,105 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class EnrollmentService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String INSERT_ENROLLMENT =
+            "INSERT INTO enrollments (user_id, course_id, enrolled_at, completed_count) VALUES (?, ?, ?, 0) " +
+            "ON CONFLICT (user_id, course_id) DO NOTHING RETURNING id";
+
+    private final CatalogRouter catalogRouter;
+    private final EnrollmentMembership enrollmentMembership;
     private final EnrollmentRepository enrollmentRepository;
-    private final CourseRepository courseRepository;
-    private final UserRepository userRepository;
     private final SubtopicProgressRepository subtopicProgressRepository;
+    private final JdbcTemplate jdbcTemplate;
 
-    @Transactional
+    /**
+     * A single {@code INSERT ... ON CONFLICT DO NOTHING}: a row coming back
+     * means this request enrolled the user, no row means an enrollment
+     * already existed, also when it was made by a parallel request.
+     */
     public EnrollmentResponse enrollInCourse(String courseId) {
-        User user = getCurrentUser();
+        Long userId = getCurrentUserId();
 
-        Course course = courseRepository.findById(courseId)
+        String courseTitle = catalogRouter.findCourseTitle(courseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Course with id '" + courseId + "' does not exist"));
 
-        // Check for duplicate enrollment
-        if (enrollmentRepository.existsByUserIdAndCourseId(user.getId(), courseId)) {
+        LocalDateTime enrolledAt = LocalDateTime.now();
+        List<Long> enrollmentIds = jdbcTemplate.queryForList(INSERT_ENROLLMENT, Long.class,
+                userId, courseId, Timestamp.valueOf(enrolledAt));
+        if (enrollmentIds.isEmpty()) {
             throw new DuplicateEnrollmentException("You are already enrolled in this course");
         }
+        enrollmentMembership.recordEnrollment(userId, courseId);
 
-        Enrollment enrollment = Enrollment.builder()
-                .user(user)
-                .course(course)
+        return EnrollmentResponse.builder()
+                .enrollmentId(enrollmentIds.get(0))
+                .courseId(courseId)
+                .courseTitle(courseTitle)
+                .enrolledAt(enrolledAt)
                 .build();
+    }
 
-        Enrollment savedEnrollment = enrollmentRepository.save(enrollment);
+    /**
+     * All enrollments of the current user, newest first, with progress from
+     * the maintained counters, so the whole list is one query however many
+     * courses the user is enrolled in.
+     */
+    @Transactional(readOnly = true)
+    public EnrollmentsResponse getEnrollments() {
+        List<EnrollmentListResponse> enrollments = enrollmentRepository.findSummariesByUserId(getCurrentUserId())
+                .stream()
+                .map(row -> EnrollmentListResponse.builder()
+                        .enrollmentId(row.getEnrollmentId())
+                        .courseId(row.getCourseId())
+                        .courseTitle(row.getCourseTitle())
+                        .enrolledAt(row.getEnrolledAt())
+                        .totalSubtopics(row.getSubtopicCount())
+                        .completedSubtopics(row.getCompletedCount())
+                        .completionPercentage(completionPercentage(row.getCompletedCount(), row.getSubtopicCount()))
+                        .build())
+                .collect(Collectors.toList());
 
-        return EnrollmentResponse.builder()
-                .enrollmentId(savedEnrollment.getId())
-                .courseId(course.getId())
-                .courseTitle(course.getTitle())
-                .enrolledAt(savedEnrollment.getEnrolledAt())
-                .build();
+        return EnrollmentsResponse.builder().enrollments(enrollments).build();
     }
 
+    /**
+     * Progress totals come from the maintained counters on the enrollment and
+     * course. Completed items are only loaded when requested, one page at a time.
+     */
     @Transactional(readOnly = true)
-    public ProgressResponse getProgress(Long enrollmentId) {
-        Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
+    public ProgressResponse getProgress(Long enrollmentId, boolean includeItems, int page, int size) {
+        if (page < 0) {
+            throw new BadRequestException("Page must not be negative");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Enrollment enrollment = enrollmentRepository.findWithCourseById(enrollmentId)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Enrollment with id '" + enrollmentId + "' does not exist"));
 
-        User currentUser = getCurrentUser();
-        if (!enrollment.getUser().getId().equals(currentUser.getId())) {
+        if (!enrollment.getUser().getId().equals(getCurrentUserId())) {
             throw new ResourceNotFoundException("Enrollment with id '" + enrollmentId + "' does not exist");
         }
 
         Course course = enrollment.getCourse();
 
-        // Calculate total subtopics
-        int totalSubtopics = course.getTopics().stream()
-                .mapToInt(topic -> topic.getSubtopics().size())
-                .sum();
-
-        // Get completed subtopics
-        List<SubtopicProgress> completedProgress = subtopicProgressRepository.findByEnrollmentId(enrollmentId)
-                .stream()
-                .filter(SubtopicProgress::getCompleted)
-                .collect(Collectors.toList());
-
-        int completedCount = completedProgress.size();
-        double completionPercentage = totalSubtopics > 0 ? (double) completedCount / totalSubtopics * 100 : 0.0;
-
-        List<ProgressResponse.CompletedItem> completedItems = completedProgress.stream()
-                .map(progress -> ProgressResponse.CompletedItem.builder()
-                        .subtopicId(progress.getSubtopic().getId())
-                        .subtopicTitle(progress.getSubtopic().getTitle())
-                        .completedAt(progress.getCompletedAt())
-                        .build())
-                .collect(Collectors.toList());
+        int totalSubtopics = course.getSubtopicCount();
+        int completedCount = enrollment.getCompletedCount();
+
+        List<ProgressResponse.CompletedItem> completedItems = null;
+        if (includeItems) {
+            completedItems = subtopicProgressRepository.findCompletedRows(enrollmentId, PageRequest.of(page, size))
+                    .stream()
+                    .map(row -> ProgressResponse.CompletedItem.builder()
+                            .subtopicId(row.getSubtopicId())
+                            .subtopicTitle(row.getSubtopicTitle())
+                            .completedAt(row.getCompletedAt())
+                            .build())
+                    .collect(Collectors.toList());
+        }
 
         return ProgressResponse.builder()
                 .enrollmentId(enrollmentId)
@@ -98,15 +137,18 @@ public class EnrollmentService {
                 .courseTitle(course.getTitle())
                 .totalSubtopics(totalSubtopics)
                 .completedSubtopics(completedCount)
-                .completionPercentage(Math.round(completionPercentage * 100.0) / 100.0)
+                .completionPercentage(completionPercentage(completedCount, totalSubtopics))
                 .completedItems(completedItems)
                 .build();
     }
 
-    private User getCurrentUser() {
+    private static double completionPercentage(int completedCount, int totalSubtopics) {
+        double percentage = totalSubtopics > 0 ? (double) completedCount / totalSubtopics * 100 : 0.0;
+        return Math.round(percentage * 100.0) / 100.0;
+    }
+
+    private Long getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        return ((AuthenticatedUser) authentication.getPrincipal()).getId();
     }
 }
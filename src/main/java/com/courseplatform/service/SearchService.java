@@ -1,15 +1,17 @@
 package com.courseplatform.service;
 
 import com.courseplatform.dto.SearchResponse;
-import com.courseplatform.entity.Course;
-import com.courseplatform.entity.Subtopic;
-import com.courseplatform.entity.Topic;
-import com.courseplatform.repository.CourseRepository;
+import com.courseplatform.dto.SuggestResponse;
+import com.courseplatform.exception.BadRequestException;
+import com.courseplatform.search.SearchBackend;
+import com.courseplatform.search.SearchCursor;
+import com.courseplatform.search.SearchQuery;
+import com.courseplatform.search.SearchResultCache;
+import com.courseplatform.search.SuggestionIndexManager;
+import com.courseplatform.search.SuggestionTrie;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -17,101 +19,43 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class SearchService {
 
-    private final CourseRepository courseRepository;
+    public static final int MAX_PAGE_SIZE = 100;
 
-    @Transactional(readOnly = true)
-    public SearchResponse search(String query) {
-        List<Course> courses = courseRepository.searchCourses(query);
+    private final SearchBackend searchBackend;
+    private final SearchResultCache searchResultCache;
+    private final SuggestionIndexManager suggestionIndexManager;
 
-        List<SearchResponse.SearchResult> results = courses.stream()
-                .map(course -> buildSearchResult(course, query))
-                .filter(result -> !result.getMatches().isEmpty())
-                .collect(Collectors.toList());
-
-        return SearchResponse.builder()
-                .query(query)
-                .results(results)
-                .build();
-    }
-
-    private SearchResponse.SearchResult buildSearchResult(Course course, String query) {
-        List<SearchResponse.Match> matches = new ArrayList<>();
-        String lowerQuery = query.toLowerCase();
-
-        // Check course title and description
-        if (course.getTitle().toLowerCase().contains(lowerQuery)) {
-            matches.add(SearchResponse.Match.builder()
-                    .type("course")
-                    .snippet(course.getTitle())
-                    .build());
-        }
-
-        if (course.getDescription() != null && course.getDescription().toLowerCase().contains(lowerQuery)) {
-            matches.add(SearchResponse.Match.builder()
-                    .type("course")
-                    .snippet(createSnippet(course.getDescription(), query))
-                    .build());
+    public SearchResponse search(String query, int page, int size, String cursor) {
+        if (page < 0) {
+            throw new BadRequestException("Page must not be negative");
         }
-
-        // Check topics and subtopics
-        for (Topic topic : course.getTopics()) {
-            if (topic.getTitle().toLowerCase().contains(lowerQuery)) {
-                matches.add(SearchResponse.Match.builder()
-                        .type("topic")
-                        .topicTitle(topic.getTitle())
-                        .snippet(topic.getTitle())
-                        .build());
-            }
-
-            for (Subtopic subtopic : topic.getSubtopics()) {
-                if (subtopic.getTitle().toLowerCase().contains(lowerQuery)) {
-                    matches.add(SearchResponse.Match.builder()
-                            .type("subtopic")
-                            .topicTitle(topic.getTitle())
-                            .subtopicId(subtopic.getId())
-                            .subtopicTitle(subtopic.getTitle())
-                            .snippet(subtopic.getTitle())
-                            .build());
-                }
-
-                if (subtopic.getContent() != null && subtopic.getContent().toLowerCase().contains(lowerQuery)) {
-                    matches.add(SearchResponse.Match.builder()
-                            .type("content")
-                            .topicTitle(topic.getTitle())
-                            .subtopicId(subtopic.getId())
-                            .subtopicTitle(subtopic.getTitle())
-                            .snippet(createSnippet(subtopic.getContent(), query))
-                            .build());
-                }
-            }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Size must be between 1 and " + MAX_PAGE_SIZE);
         }
 
-        return SearchResponse.SearchResult.builder()
-                .courseId(course.getId())
-                .courseTitle(course.getTitle())
-                .matches(matches)
-                .build();
+        SearchCursor searchCursor = cursor != null && !cursor.isBlank() ? SearchCursor.decode(cursor) : null;
+        SearchQuery searchQuery = new SearchQuery(query, page, size, searchCursor);
+        return searchResultCache.get(searchBackend, searchQuery, () -> searchBackend.search(searchQuery));
     }
 
-    private String createSnippet(String text, String query) {
-        int maxSnippetLength = 150;
-        String lowerText = text.toLowerCase();
-        String lowerQuery = query.toLowerCase();
-
-        int index = lowerText.indexOf(lowerQuery);
-        if (index == -1) {
-            return text.length() > maxSnippetLength ? text.substring(0, maxSnippetLength) + "..." : text;
+    public SuggestResponse suggest(String prefix, int limit) {
+        if (limit < 1 || limit > SuggestionTrie.MAX_SUGGESTIONS) {
+            throw new BadRequestException("Limit must be between 1 and " + SuggestionTrie.MAX_SUGGESTIONS);
         }
 
-        int start = Math.max(0, index - 50);
-        int end = Math.min(text.length(), index + query.length() + 50);
-
-        String snippet = text.substring(start, end);
-        if (start > 0)
-            snippet = "..." + snippet;
-        if (end < text.length())
-            snippet = snippet + "...";
+        List<SuggestResponse.Suggestion> suggestions = suggestionIndexManager.current().suggest(prefix, limit)
+                .stream()
+                .map(suggestion -> SuggestResponse.Suggestion.builder()
+                        .type(suggestion.getType())
+                        .id(suggestion.getId())
+                        .title(suggestion.getTitle())
+                        .courseId(suggestion.getCourseId())
+                        .build())
+                .collect(Collectors.toList());
 
-        return snippet;
+        return SuggestResponse.builder()
+                .prefix(prefix)
+                .suggestions(suggestions)
+                .build();
     }
 }
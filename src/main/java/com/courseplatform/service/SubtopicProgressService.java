@@ -1,75 +1,213 @@
 package com.courseplatform.service;
 
+import com.courseplatform.catalog.CatalogRouter;
+import com.courseplatform.dto.BulkCompletionResponse;
 import com.courseplatform.dto.SubtopicCompletionResponse;
+import com.courseplatform.enrollment.EnrollmentMembership;
 import com.courseplatform.entity.*;
 import com.courseplatform.exception.ForbiddenException;
 import com.courseplatform.exception.ResourceNotFoundException;
-import com.courseplatform.repository.EnrollmentRepository;
+import com.courseplatform.progress.CompletionWriteBehind;
+import com.courseplatform.progress.PendingCompletion;
 import com.courseplatform.repository.SubtopicProgressRepository;
-import com.courseplatform.repository.SubtopicRepository;
-import com.courseplatform.repository.UserRepository;
+import com.courseplatform.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 public class SubtopicProgressService {
 
+    // Rows newly inserted or flipped to completed come back from "done" and bump the counter;
+    // otherwise the existing completion time is read in the same statement
+    private static final String UPSERT_COMPLETED_PROGRESS =
+            "WITH done AS (INSERT INTO subtopic_progress " +
+            "(user_id, subtopic_id, enrollment_id, completed, completed_at) " +
+            "VALUES (?, ?, ?, true, ?) ON CONFLICT (user_id, subtopic_id) DO UPDATE SET completed = true, " +
+            "completed_at = COALESCE(subtopic_progress.completed_at, EXCLUDED.completed_at) " +
+            "WHERE NOT subtopic_progress.completed RETURNING completed_at), " +
+            "counted AS (UPDATE enrollments SET completed_count = completed_count + 1 " +
+            "WHERE id = ? AND EXISTS (SELECT 1 FROM done)) " +
+            "SELECT completed_at FROM done UNION ALL " +
+            "SELECT completed_at FROM subtopic_progress WHERE user_id = ? AND subtopic_id = ? " +
+            "AND NOT EXISTS (SELECT 1 FROM done)";
+
+    private final CatalogRouter catalogRouter;
+    private final EnrollmentMembership enrollmentMembership;
     private final SubtopicProgressRepository subtopicProgressRepository;
-    private final SubtopicRepository subtopicRepository;
-    private final EnrollmentRepository enrollmentRepository;
-    private final UserRepository userRepository;
+    private final ObjectProvider<CompletionWriteBehind> completionWriteBehind;
+    private final JdbcTemplate jdbcTemplate;
 
-    @Transactional
+    /**
+     * Records the completion synchronously, or, with write-behind enabled,
+     * acknowledges it once journaled; {@code completedAt} is then the
+     * acknowledgement time.
+     */
     public SubtopicCompletionResponse markSubtopicComplete(String subtopicId) {
-        User user = getCurrentUser();
+        Long userId = getCurrentUserId();
 
-        Subtopic subtopic = subtopicRepository.findById(subtopicId)
+        CompletionWriteBehind writeBehind = completionWriteBehind.getIfAvailable();
+        if (writeBehind != null) {
+            PendingCompletion completion = writeBehind.submit(userId, subtopicId);
+            return SubtopicCompletionResponse.builder()
+                    .subtopicId(subtopicId)
+                    .completed(true)
+                    .completedAt(completion.getCompletedAt())
+                    .build();
+        }
+        return markSubtopicCompleteNow(userId, subtopicId);
+    }
+
+    /**
+     * One round trip: the upsert, the counter increment and the read of an
+     * already recorded completion run as a single statement, so parallel
+     * requests for the same subtopic count it exactly once.
+     */
+    private SubtopicCompletionResponse markSubtopicCompleteNow(Long userId, String subtopicId) {
+        // Ownership comes from the in-memory catalog routes, not the subtopic row
+        String courseId = catalogRouter.findCourseOfSubtopic(subtopicId)
                 .orElseThrow(
                         () -> new ResourceNotFoundException("Subtopic with id '" + subtopicId + "' does not exist"));
 
-        // Get the course ID from the subtopic
-        String courseId = subtopic.getTopic().getCourse().getId();
-
         // Check if user is enrolled in the course
-        Enrollment enrollment = enrollmentRepository.findByUserIdAndCourseId(user.getId(), courseId)
+        Long enrollmentId = enrollmentMembership.findEnrollmentId(userId, courseId)
                 .orElseThrow(() -> new ForbiddenException(
                         "You must be enrolled in this course to mark subtopics as complete"));
 
-        // Check if progress already exists (idempotent operation)
-        SubtopicProgress progress = subtopicProgressRepository
-                .findByUserIdAndSubtopicId(user.getId(), subtopicId)
-                .orElse(null);
-
-        if (progress == null) {
-            // Create new progress record
-            progress = SubtopicProgress.builder()
-                    .user(user)
-                    .subtopic(subtopic)
-                    .enrollment(enrollment)
-                    .completed(true)
+        List<Timestamp> completedAt = jdbcTemplate.queryForList(UPSERT_COMPLETED_PROGRESS, Timestamp.class,
+                userId, subtopicId, enrollmentId, Timestamp.valueOf(LocalDateTime.now()), enrollmentId,
+                userId, subtopicId);
+
+        return SubtopicCompletionResponse.builder()
+                .subtopicId(subtopicId)
+                .completed(true)
+                .completedAt(completedAt.isEmpty()
+                        // Completed by a request that committed while this statement ran
+                        ? subtopicProgressRepository.findByUserIdAndSubtopicId(userId, subtopicId)
+                                .map(SubtopicProgress::getCompletedAt)
+                                .orElse(null)
+                        : completedAt.get(0).toLocalDateTime())
+                .build();
+    }
+
+    /**
+     * Completes many subtopics at once for offline sync. Subtopic ownership
+     * and enrollments come from memory, and every completable subtopic goes
+     * into one multi-row upsert that also bumps the enrollment counters. Only
+     * rows that statement actually inserted or flipped to completed are
+     * counted and reported as COMPLETED, so a parallel request completing the
+     * same subtopic is never counted twice. This path is always synchronous,
+     * also when write-behind is enabled.
+     */
+    @Transactional
+    public BulkCompletionResponse markSubtopicsComplete(List<String> subtopicIds) {
+        Long userId = getCurrentUserId();
+        Set<String> ids = new LinkedHashSet<>(subtopicIds);
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<String, String> subtopicCourses = catalogRouter.findCoursesOfSubtopics(ids);
+        Map<String, Long> enrollmentIds = enrollmentMembership.findEnrollmentIds(userId,
+                new HashSet<>(subtopicCourses.values()));
+
+        Map<String, BulkCompletionResponse.Item> results = new LinkedHashMap<>();
+        // Sorted, so that parallel requests lock the progress rows in the same order and cannot deadlock
+        Map<String, Long> completable = new TreeMap<>();
+        for (String subtopicId : ids) {
+            String courseId = subtopicCourses.get(subtopicId);
+            Long enrollmentId = courseId != null ? enrollmentIds.get(courseId) : null;
+            if (courseId == null) {
+                results.put(subtopicId, item(subtopicId, BulkCompletionResponse.Status.NOT_FOUND, null));
+            } else if (enrollmentId == null) {
+                results.put(subtopicId, item(subtopicId, BulkCompletionResponse.Status.NOT_ENROLLED, null));
+            } else {
+                // Placeholder until the upsert tells which rows it completed
+                results.put(subtopicId, null);
+                completable.put(subtopicId, enrollmentId);
+            }
+        }
+        if (completable.isEmpty()) {
+            return BulkCompletionResponse.builder()
+                    .completed(0)
+                    .results(new ArrayList<>(results.values()))
                     .build();
-        } else {
-            // Update existing record (idempotent)
-            progress.setCompleted(true);
         }
 
-        SubtopicProgress savedProgress = subtopicProgressRepository.save(progress);
+        StringBuilder sql = new StringBuilder(
+                "WITH done AS (INSERT INTO subtopic_progress " +
+                "(user_id, subtopic_id, enrollment_id, completed, completed_at) VALUES ");
+        List<Object> args = new ArrayList<>();
+        completable.forEach((subtopicId, enrollmentId) -> {
+            sql.append(args.isEmpty() ? "" : ", ").append("(?, ?, ?, true, ?)");
+            args.addAll(List.of(userId, subtopicId, enrollmentId, Timestamp.valueOf(now)));
+        });
+        sql.append(" ON CONFLICT (user_id, subtopic_id) DO UPDATE SET completed = true, ")
+                .append("completed_at = COALESCE(subtopic_progress.completed_at, EXCLUDED.completed_at) ")
+                .append("WHERE NOT subtopic_progress.completed RETURNING subtopic_id, enrollment_id, completed_at), ")
+                .append("counted AS (UPDATE enrollments e SET completed_count = e.completed_count + d.completed ")
+                .append("FROM (SELECT enrollment_id, COUNT(*) AS completed FROM done GROUP BY enrollment_id) d ")
+                .append("WHERE e.id = d.enrollment_id) ")
+                .append("SELECT subtopic_id, completed_at FROM done");
+        jdbcTemplate.query(sql.toString(), (RowCallbackHandler) row -> {
+            String subtopicId = row.getString("subtopic_id");
+            results.put(subtopicId, item(subtopicId, BulkCompletionResponse.Status.COMPLETED,
+                    row.getTimestamp("completed_at").toLocalDateTime()));
+        }, args.toArray());
+        int completed = (int) results.values().stream()
+                .filter(item -> item != null && item.getStatus() == BulkCompletionResponse.Status.COMPLETED)
+                .count();
 
-        return SubtopicCompletionResponse.builder()
+        // Whatever the upsert left alone was completed before, possibly by a parallel request
+        Set<String> alreadyCompleted = results.entrySet().stream()
+                .filter(entry -> entry.getValue() == null)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        if (!alreadyCompleted.isEmpty()) {
+            for (SubtopicProgress progress : subtopicProgressRepository.findByUserIdAndSubtopicIdIn(userId,
+                    alreadyCompleted)) {
+                String subtopicId = progress.getSubtopic().getId();
+                results.put(subtopicId, item(subtopicId, BulkCompletionResponse.Status.ALREADY_COMPLETED,
+                        progress.getCompletedAt()));
+            }
+            // Only reachable if the row was deleted in between
+            results.replaceAll((subtopicId, result) -> result != null ? result
+                    : item(subtopicId, BulkCompletionResponse.Status.ALREADY_COMPLETED, null));
+        }
+
+        return BulkCompletionResponse.builder()
+                .completed(completed)
+                .results(new ArrayList<>(results.values()))
+                .build();
+    }
+
+    private static BulkCompletionResponse.Item item(String subtopicId, BulkCompletionResponse.Status status,
+            LocalDateTime completedAt) {
+        return BulkCompletionResponse.Item.builder()
                 .subtopicId(subtopicId)
-                .completed(savedProgress.getCompleted())
-                .completedAt(savedProgress.getCompletedAt())
+                .status(status)
+                .completedAt(completedAt)
                 .build();
     }
 
-    private User getCurrentUser() {
+    private Long getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        return ((AuthenticatedUser) authentication.getPrincipal()).getId();
     }
 }
@@ -0,0 +1,51 @@
+package com.courseplatform.util;
+
+import com.courseplatform.repository.EnrollmentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * One-off migration that recomputes {@code Enrollment.completedCount} from the
+ * progress rows, for enrollments created before the counter existed. From
+ * then on the counter is maintained by {@code SubtopicProgressService}.
+ * <p>
+ * Only runs when {@code progress.completed-count-backfill.enabled=true}. It
+ * walks the enrollments in id ranges, one short transaction each, and only
+ * rewrites counters that are wrong. A completion committed by another
+ * instance while its range is recounted can still be lost, so enable it for
+ * a single start with writes paused, then switch it off again.
+ */
+@Component
+@ConditionalOnProperty(name = "progress.completed-count-backfill.enabled", havingValue = "true")
+@Slf4j
+public class ProgressCountBackfill implements ApplicationRunner {
+
+    private static final long RANGE_SIZE = 1000;
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public ProgressCountBackfill(EnrollmentRepository enrollmentRepository,
+            PlatformTransactionManager transactionManager) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long maxId = enrollmentRepository.findMaxId();
+        int corrected = 0;
+        for (long afterId = 0; afterId < maxId; afterId += RANGE_SIZE) {
+            long from = afterId;
+            Integer updated = transactionTemplate.execute(
+                    status -> enrollmentRepository.recountCompleted(from, from + RANGE_SIZE));
+            corrected += updated != null ? updated : 0;
+        }
+        log.info("Completed-count backfill corrected {} enrollments", corrected);
+    }
+}
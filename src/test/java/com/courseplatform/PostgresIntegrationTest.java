@@ -0,0 +1,76 @@
+package com.courseplatform;
+
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.entity.Topic;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.UUID;
+
+/**
+ * Base class for tests that run the application against PostgreSQL, which
+ * the upserts and full-text search depend on (see {@link TestDatabase}).
+ * Catalog and search index flushes are effectively disabled by the
+ * {@code test} profile, so Hibernate statistics only count the statements a
+ * test issues itself.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public abstract class PostgresIntegrationTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> TestDatabase.get().url());
+        registry.add("spring.datasource.username", () -> TestDatabase.get().username());
+        registry.add("spring.datasource.password", () -> TestDatabase.get().password());
+    }
+
+    /**
+     * Statistics reset to zero, so the next reads cover only what follows.
+     */
+    protected Statistics resetStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    /**
+     * An unsaved course with {@code topics} topics of {@code subtopicsPerTopic}
+     * subtopics each, under ids that no other test uses.
+     */
+    protected static Course newCourse(int topics, int subtopicsPerTopic) {
+        String courseId = "test-" + UUID.randomUUID();
+        Course course = Course.builder()
+                .id(courseId)
+                .title("Course " + courseId)
+                .description("Generated for a test")
+                .build();
+        for (int t = 0; t < topics; t++) {
+            Topic topic = Topic.builder()
+                    .id(courseId + "-t" + t)
+                    .title("Topic " + t)
+                    .course(course)
+                    .build();
+            for (int s = 0; s < subtopicsPerTopic; s++) {
+                topic.getSubtopics().add(Subtopic.builder()
+                        .id(topic.getId() + "-s" + s)
+                        .title("Subtopic " + s)
+                        .content("Content of subtopic " + s)
+                        .topic(topic)
+                        .build());
+            }
+            course.getTopics().add(topic);
+        }
+        return course;
+    }
+}
@@ -0,0 +1,71 @@
+package com.courseplatform;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * The PostgreSQL instance shared by all integration tests of a run: the one
+ * at {@code TEST_DATABASE_URL} when set (credentials from
+ * {@code TEST_DATABASE_USERNAME}/{@code TEST_DATABASE_PASSWORD}, default
+ * {@code postgres} without a password), otherwise an embedded server started
+ * on first use and stopped when the JVM exits.
+ */
+final class TestDatabase {
+
+    private static TestDatabase instance;
+
+    private final String url;
+    private final String username;
+    private final String password;
+
+    private TestDatabase(String url, String username, String password) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    static synchronized TestDatabase get() {
+        if (instance != null) {
+            return instance;
+        }
+        String url = System.getenv("TEST_DATABASE_URL");
+        if (url != null && !url.isBlank()) {
+            instance = new TestDatabase(url, env("TEST_DATABASE_USERNAME", "postgres"),
+                    env("TEST_DATABASE_PASSWORD", ""));
+            return instance;
+        }
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+            instance = new TestDatabase(postgres.getJdbcUrl("postgres", "postgres"), "postgres", "");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start embedded PostgreSQL", e);
+        }
+        return instance;
+    }
+
+    String url() {
+        return url;
+    }
+
+    String username() {
+        return username;
+    }
+
+    String password() {
+        return password;
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null ? value : defaultValue;
+    }
+}
@@ -0,0 +1,104 @@
+package com.courseplatform.catalog;
+
+import com.courseplatform.PostgresIntegrationTest;
+import com.courseplatform.dto.ProgressResponse;
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.User;
+import com.courseplatform.repository.CourseRepository;
+import com.courseplatform.repository.SubtopicRepository;
+import com.courseplatform.repository.UserRepository;
+import com.courseplatform.security.AuthenticatedUser;
+import com.courseplatform.service.EnrollmentService;
+import com.courseplatform.service.SubtopicProgressService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Changes the catalog under an enrollment with progress and checks that
+ * both counters behind {@code getProgress} follow once the snapshot flushes.
+ */
+class SubtopicCountMaintainerTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private SubtopicProgressService subtopicProgressService;
+
+    @Autowired
+    private CatalogSnapshotManager catalogSnapshotManager;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private SubtopicRepository subtopicRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@example.com")
+                .password("not-a-hash")
+                .build());
+        course = courseRepository.save(newCourse(2, 2));
+        catalogSnapshotManager.flush();
+
+        AuthenticatedUser principal = new AuthenticatedUser(user.getId(), user.getEmail(), user.getTokenVersion());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void deletingCompletedSubtopicRecountsProgress() {
+        Long enrollmentId = enrollmentService.enrollInCourse(course.getId()).getEnrollmentId();
+        String deleted = course.getId() + "-t0-s0";
+        subtopicProgressService.markSubtopicsComplete(List.of(deleted, course.getId() + "-t1-s1"));
+
+        transactionTemplate.executeWithoutResult(status ->
+                subtopicRepository.delete(subtopicRepository.findById(deleted).orElseThrow()));
+        catalogSnapshotManager.flush();
+
+        ProgressResponse progress = enrollmentService.getProgress(enrollmentId, false, 0, 10);
+        assertEquals(3, progress.getTotalSubtopics());
+        assertEquals(1, progress.getCompletedSubtopics());
+    }
+
+    @Test
+    void deletingAllCompletedSubtopicsLeavesNoProgress() {
+        Long enrollmentId = enrollmentService.enrollInCourse(course.getId()).getEnrollmentId();
+        List<String> completed = List.of(course.getId() + "-t0-s0", course.getId() + "-t0-s1");
+        subtopicProgressService.markSubtopicsComplete(completed);
+
+        transactionTemplate.executeWithoutResult(status ->
+                subtopicRepository.deleteAll(subtopicRepository.findAllById(completed)));
+        catalogSnapshotManager.flush();
+
+        ProgressResponse progress = enrollmentService.getProgress(enrollmentId, false, 0, 10);
+        assertEquals(2, progress.getTotalSubtopics());
+        assertEquals(0, progress.getCompletedSubtopics());
+        assertEquals(0.0, progress.getCompletionPercentage());
+    }
+}
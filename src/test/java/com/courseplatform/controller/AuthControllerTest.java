@@ -0,0 +1,116 @@
+package com.courseplatform.controller;
+
+import com.courseplatform.PostgresIntegrationTest;
+import com.courseplatform.security.PasswordHashingExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs registration and login over HTTP with a hashing pool of one thread
+ * and a queue of one, so the pool can be filled from the test.
+ */
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "security.password.hashing.threads=1",
+        "security.password.hashing.queue-capacity=1"
+})
+class AuthControllerTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Test
+    void registeredUserCanLogIn() throws Exception {
+        String email = UUID.randomUUID() + "@example.com";
+
+        perform(credentials("/api/auth/register", email, "secret-password"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.email").value(email));
+
+        perform(credentials("/api/auth/login", email, "secret-password"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isNotEmpty());
+    }
+
+    @Test
+    void wrongPasswordAndUnknownEmailAreUnauthorized() throws Exception {
+        String email = UUID.randomUUID() + "@example.com";
+        perform(credentials("/api/auth/register", email, "secret-password"))
+                .andExpect(status().isCreated());
+
+        perform(credentials("/api/auth/login", email, "wrong-password"))
+                .andExpect(status().isUnauthorized());
+        perform(credentials("/api/auth/login", UUID.randomUUID() + "@example.com", "secret-password"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void fullHashingQueueReturnsTooManyRequests() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // One task on the pool's only thread, then one in its only queue slot
+            passwordHashingExecutor.submit(() -> {
+                started.countDown();
+                return awaitQuietly(release);
+            });
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            passwordHashingExecutor.submit(() -> awaitQuietly(release));
+
+            mockMvc.perform(credentials("/api/auth/login", "someone@example.com", "secret-password"))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string("Retry-After", "1"));
+            mockMvc.perform(credentials("/api/auth/register", UUID.randomUUID() + "@example.com", "secret-password"))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string("Retry-After", "1"));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static Void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    private ResultActions perform(MockHttpServletRequestBuilder request)
+            throws Exception {
+        MvcResult started = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started));
+    }
+
+    private static MockHttpServletRequestBuilder credentials(String path, String email, String password) {
+        return post(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}");
+    }
+}
@@ -0,0 +1,111 @@
+package com.courseplatform.enrollment;
+
+import com.courseplatform.PostgresIntegrationTest;
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.User;
+import com.courseplatform.repository.CourseRepository;
+import com.courseplatform.repository.UserRepository;
+import com.courseplatform.security.AuthenticatedUser;
+import com.courseplatform.service.EnrollmentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the cached membership never hides an enrollment, whether it
+ * was made through this instance or written by another one.
+ */
+class EnrollmentMembershipTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private EnrollmentMembership enrollmentMembership;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+    private Course course;
+    private Course otherCourse;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@example.com")
+                .password("not-a-hash")
+                .build());
+        course = courseRepository.save(newCourse(1, 1));
+        otherCourse = courseRepository.save(newCourse(1, 1));
+
+        AuthenticatedUser principal = new AuthenticatedUser(user.getId(), user.getEmail(), user.getTokenVersion());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void enrollmentIsVisibleImmediately() {
+        // Caches the user with no enrollments first
+        assertTrue(enrollmentMembership.findEnrollmentIds(user.getId(), List.of(course.getId())).isEmpty());
+
+        Long enrollmentId = enrollmentService.enrollInCourse(course.getId()).getEnrollmentId();
+
+        assertEquals(Map.of(course.getId(), enrollmentId),
+                enrollmentMembership.findEnrollmentIds(user.getId(), List.of(course.getId(), otherCourse.getId())));
+        assertEquals(Optional.of(enrollmentId), enrollmentMembership.findEnrollmentId(user.getId(), course.getId()));
+    }
+
+    @Test
+    void enrollmentWrittenElsewhereIsFound() {
+        Long enrollmentId = enrollmentService.enrollInCourse(course.getId()).getEnrollmentId();
+        assertEquals(Map.of(course.getId(), enrollmentId),
+                enrollmentMembership.findEnrollmentIds(user.getId(), List.of(course.getId())));
+
+        // As another instance would, bypassing this one's cache and filter
+        Long otherEnrollmentId = jdbcTemplate.queryForObject(
+                "INSERT INTO enrollments (user_id, course_id, enrolled_at, completed_count) "
+                        + "VALUES (?, ?, now(), 0) RETURNING id",
+                Long.class, user.getId(), otherCourse.getId());
+
+        assertEquals(Map.of(course.getId(), enrollmentId, otherCourse.getId(), otherEnrollmentId),
+                enrollmentMembership.findEnrollmentIds(user.getId(), List.of(course.getId(), otherCourse.getId())));
+    }
+
+    @Test
+    void enrollmentWrittenElsewhereIsFoundByPointLookup() {
+        assertEquals(Optional.empty(), enrollmentMembership.findEnrollmentId(user.getId(), course.getId()));
+
+        Long enrollmentId = jdbcTemplate.queryForObject(
+                "INSERT INTO enrollments (user_id, course_id, enrolled_at, completed_count) "
+                        + "VALUES (?, ?, now(), 0) RETURNING id",
+                Long.class, user.getId(), course.getId());
+
+        assertEquals(Optional.of(enrollmentId), enrollmentMembership.findEnrollmentId(user.getId(), course.getId()));
+        assertEquals(Map.of(course.getId(), enrollmentId),
+                enrollmentMembership.findEnrollmentIds(user.getId(), List.of(course.getId())));
+    }
+}
@@ -0,0 +1,80 @@
+package com.courseplatform.enrollment;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MembershipBloomFilterTest {
+
+    private static final int PAIRS = 100_000;
+
+    @Test
+    void containsEveryAddedPair() {
+        MembershipBloomFilter filter = new MembershipBloomFilter(PAIRS, 0.01);
+        for (int i = 0; i < PAIRS; i++) {
+            filter.put(i / 10, "course-" + i % 10);
+        }
+
+        for (int i = 0; i < PAIRS; i++) {
+            assertTrue(filter.mightContain(i / 10, "course-" + i % 10), "pair " + i);
+        }
+    }
+
+    @Test
+    void containsEveryPairAddedConcurrently() throws Exception {
+        // Small filter so threads keep setting bits in the same words
+        MembershipBloomFilter filter = new MembershipBloomFilter(1_000, 0.01);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                results.add(executor.submit(() -> {
+                    for (int i = thread; i < PAIRS; i += threads) {
+                        filter.put(i, "course-" + i % 7);
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = 0; i < PAIRS; i++) {
+            assertTrue(filter.mightContain(i, "course-" + i % 7), "pair " + i);
+        }
+    }
+
+    @Test
+    void keepsFalsePositivesNearConfiguredRate() {
+        MembershipBloomFilter filter = new MembershipBloomFilter(PAIRS, 0.01);
+        for (int i = 0; i < PAIRS; i++) {
+            filter.put(i, "course-a");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            if (filter.mightContain(i, "course-b")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < PAIRS * 0.02, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        MembershipBloomFilter filter = new MembershipBloomFilter(0, 0.01);
+
+        assertFalse(filter.mightContain(1, "course-a"));
+    }
+}
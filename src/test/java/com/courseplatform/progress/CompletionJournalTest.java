@@ -0,0 +1,155 @@
+package com.courseplatform.progress;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompletionJournalTest {
+
+    private static final LocalDateTime COMPLETED_AT = LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_456_000);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysEntriesOfUnflushedSegments() {
+        CompletionJournal journal = new CompletionJournal(directory, true);
+        journal.sync(journal.append(completion(1, "s1")));
+        journal.rotate();
+        journal.sync(journal.append(completion(1, "s2")));
+        journal.sync(journal.append(completion(2, "s1")));
+        // No close: the process died
+
+        CompletionJournal recovered = new CompletionJournal(directory, true);
+
+        assertEquals(2, recovered.recoveredSegments().size());
+        assertEquals(List.of("1/s1", "1/s2", "2/s1"), keys(recovered.read(recovered.recoveredSegments())));
+        PendingCompletion first = recovered.read(recovered.recoveredSegments()).get(0);
+        assertEquals(10L, first.getEnrollmentId());
+        assertEquals(COMPLETED_AT, first.getCompletedAt());
+        recovered.close();
+    }
+
+    @Test
+    void deletedSegmentsAreNotReplayed() {
+        CompletionJournal journal = new CompletionJournal(directory, false);
+        journal.append(completion(1, "s1"));
+        Path flushed = journal.rotate();
+        journal.append(completion(1, "s2"));
+        journal.delete(List.of(flushed));
+        journal.close();
+
+        CompletionJournal recovered = new CompletionJournal(directory, false);
+
+        assertFalse(Files.exists(flushed));
+        assertEquals(List.of("1/s2"), keys(recovered.read(recovered.recoveredSegments())));
+        recovered.close();
+    }
+
+    @Test
+    void newSegmentsAreNumberedAfterRecoveredOnes() {
+        CompletionJournal journal = new CompletionJournal(directory, false);
+        journal.append(completion(1, "s1"));
+        journal.close();
+
+        CompletionJournal recovered = new CompletionJournal(directory, false);
+        recovered.append(completion(1, "s2"));
+        Path next = recovered.rotate();
+        recovered.close();
+
+        Path old = recovered.recoveredSegments().get(0);
+        assertTrue(next.getFileName().toString().compareTo(old.getFileName().toString()) > 0);
+        assertEquals(List.of("1/s1"), keys(recovered.read(List.of(old))));
+        assertEquals(List.of("1/s2"), keys(recovered.read(List.of(next))));
+    }
+
+    @Test
+    void dropsTornFinalEntry() throws IOException {
+        CompletionJournal journal = new CompletionJournal(directory, false);
+        journal.append(completion(1, "s1"));
+        journal.append(completion(1, "s2"));
+        journal.append(completion(1, "s3"));
+        Path segment = journal.rotate();
+        journal.close();
+
+        String content = Files.readString(segment, StandardCharsets.UTF_8);
+        // Cut inside the last timestamp's fraction, which still parses as a different time
+        Files.writeString(segment, content.substring(0, content.length() - 4), StandardCharsets.UTF_8);
+
+        CompletionJournal recovered = new CompletionJournal(directory, false);
+        List<PendingCompletion> completions = recovered.read(recovered.recoveredSegments());
+        recovered.close();
+
+        assertEquals(List.of("1/s1", "1/s2"), keys(completions));
+    }
+
+    @Test
+    void skipsMalformedEntriesAndKeepsTheRest() throws IOException {
+        Path segment = directory.resolve("completions-00000000000000000001.log");
+        Files.writeString(segment, "1\ts1\t10\t" + COMPLETED_AT + "\n"
+                + "garbage\n"
+                + "\n"
+                + "x\ts2\t10\t" + COMPLETED_AT + "\n"
+                + "1\ts3\t10\t" + COMPLETED_AT + "\n", StandardCharsets.UTF_8);
+
+        CompletionJournal recovered = new CompletionJournal(directory, false);
+        List<PendingCompletion> completions = recovered.read(recovered.recoveredSegments());
+        recovered.close();
+
+        assertEquals(List.of("1/s1", "1/s3"), keys(completions));
+    }
+
+    @Test
+    void deadLettersAreAppendedAndNeverReplayed() throws IOException {
+        CompletionJournal journal = new CompletionJournal(directory, false);
+        journal.deadLetter(List.of(completion(1, "gone")));
+        journal.deadLetter(List.of(completion(2, "gone"), completion(3, "gone")));
+        journal.close();
+
+        List<String> deadLetters = Files.readAllLines(directory.resolve("dead-letter.log"));
+        assertEquals(List.of(
+                "1\tgone\t10\t" + COMPLETED_AT,
+                "2\tgone\t10\t" + COMPLETED_AT,
+                "3\tgone\t10\t" + COMPLETED_AT), deadLetters);
+
+        CompletionJournal recovered = new CompletionJournal(directory, false);
+        assertEquals(List.of(), recovered.read(recovered.recoveredSegments()));
+        recovered.close();
+    }
+
+    @Test
+    void reportsWhetherCurrentSegmentHasAppends() {
+        CompletionJournal journal = new CompletionJournal(directory, true);
+        assertFalse(journal.hasUnrotatedAppends());
+
+        long position = journal.append(completion(1, "s1"));
+        assertTrue(journal.hasUnrotatedAppends());
+        journal.sync(position);
+        // Already covered, so no second force
+        journal.sync(position);
+
+        journal.rotate();
+        assertFalse(journal.hasUnrotatedAppends());
+        journal.close();
+    }
+
+    private static PendingCompletion completion(long userId, String subtopicId) {
+        return new PendingCompletion(userId, subtopicId, 10L, COMPLETED_AT);
+    }
+
+    private static List<String> keys(List<PendingCompletion> completions) {
+        return completions.stream()
+                .map(completion -> completion.getUserId() + "/" + completion.getSubtopicId())
+                .toList();
+    }
+}
@@ -0,0 +1,206 @@
+package com.courseplatform.progress;
+
+import com.courseplatform.PostgresIntegrationTest;
+import com.courseplatform.catalog.CatalogRouter;
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.User;
+import com.courseplatform.enrollment.EnrollmentMembership;
+import com.courseplatform.repository.CourseRepository;
+import com.courseplatform.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Replays hand-written journals through a write-behind instance, as a
+ * restart after a crash would, and checks the rows and counters it leaves.
+ */
+class CompletionWriteBehindTest extends PostgresIntegrationTest {
+
+    private static final LocalDateTime COMPLETED_AT = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Autowired
+    private CatalogRouter catalogRouter;
+
+    @Autowired
+    private EnrollmentMembership enrollmentMembership;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @TempDir
+    Path journalDirectory;
+
+    private User user;
+    private Course course;
+    private Long enrollmentId;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@example.com")
+                .password("not-a-hash")
+                .build());
+        course = courseRepository.save(newCourse(1, 3));
+        enrollmentId = jdbcTemplate.queryForObject(
+                "INSERT INTO enrollments (user_id, course_id, enrolled_at, completed_count) "
+                        + "VALUES (?, ?, now(), 0) RETURNING id",
+                Long.class, user.getId(), course.getId());
+    }
+
+    @Test
+    void replaysUnflushedJournalAtStartup() throws Exception {
+        journal(completion("-t0-s0"), completion("-t0-s1"));
+
+        CompletionWriteBehind writeBehind = start();
+        try {
+            writeBehind.flush();
+        } finally {
+            writeBehind.shutdown();
+        }
+
+        assertEquals(2, completedRows());
+        assertEquals(2, completedCount());
+        assertEquals(List.of(), segments());
+    }
+
+    @Test
+    void replayedDuplicatesAreCountedOnce() throws Exception {
+        // Duplicate within one journal, plus one already written before the crash
+        jdbcTemplate.update("INSERT INTO subtopic_progress (user_id, subtopic_id, enrollment_id, completed, "
+                + "completed_at) VALUES (?, ?, ?, true, now())", user.getId(), course.getId() + "-t0-s2",
+                enrollmentId);
+        jdbcTemplate.update("UPDATE enrollments SET completed_count = 1 WHERE id = ?", enrollmentId);
+        journal(completion("-t0-s0"), completion("-t0-s0"), completion("-t0-s2"));
+
+        CompletionWriteBehind writeBehind = start();
+        try {
+            writeBehind.flush();
+        } finally {
+            writeBehind.shutdown();
+        }
+        assertEquals(2, completedCount());
+
+        // A crash after the commit but before the segments were deleted replays them again
+        journal(completion("-t0-s0"), completion("-t0-s2"));
+        writeBehind = start();
+        try {
+            writeBehind.flush();
+        } finally {
+            writeBehind.shutdown();
+        }
+
+        assertEquals(2, completedRows());
+        assertEquals(2, completedCount());
+    }
+
+    @Test
+    void rejectedCompletionsGoToDeadLetterFile() throws Exception {
+        PendingCompletion missingSubtopic = new PendingCompletion(user.getId(), "deleted-" + UUID.randomUUID(),
+                enrollmentId, COMPLETED_AT);
+        journal(completion("-t0-s0"), missingSubtopic, completion("-t0-s1"));
+
+        CompletionWriteBehind writeBehind = start();
+        try {
+            writeBehind.flush();
+        } finally {
+            writeBehind.shutdown();
+        }
+
+        assertEquals(2, completedRows());
+        assertEquals(2, completedCount());
+        assertEquals(List.of(), segments());
+        List<String> deadLetters = Files.readAllLines(journalDirectory.resolve("dead-letter.log"));
+        assertEquals(List.of(user.getId() + "\t" + missingSubtopic.getSubtopicId() + "\t" + enrollmentId + "\t"
+                + COMPLETED_AT), deadLetters);
+    }
+
+    @Test
+    void failedFlushKeepsJournalForNextAttempt() throws Exception {
+        journal(completion("-t0-s0"));
+        jdbcTemplate.execute("ALTER TABLE subtopic_progress RENAME TO subtopic_progress_away");
+
+        CompletionWriteBehind writeBehind = start();
+        try {
+            try {
+                writeBehind.flush();
+            } catch (RuntimeException expected) {
+                // Not a constraint violation, so the batch stays queued
+            } finally {
+                jdbcTemplate.execute("ALTER TABLE subtopic_progress_away RENAME TO subtopic_progress");
+            }
+            assertFalse(segments().isEmpty());
+            assertFalse(Files.exists(journalDirectory.resolve("dead-letter.log")));
+
+            writeBehind.flush();
+        } finally {
+            writeBehind.shutdown();
+        }
+
+        assertEquals(1, completedRows());
+        assertEquals(1, completedCount());
+        assertEquals(List.of(), segments());
+    }
+
+    private PendingCompletion completion(String subtopicSuffix) {
+        return new PendingCompletion(user.getId(), course.getId() + subtopicSuffix, enrollmentId, COMPLETED_AT);
+    }
+
+    // Leaves a segment behind the way a process that died before flushing would
+    private void journal(PendingCompletion... completions) {
+        CompletionJournal journal = new CompletionJournal(journalDirectory, false);
+        for (PendingCompletion completion : completions) {
+            journal.append(completion);
+        }
+        journal.close();
+    }
+
+    // Flushes only when the test asks it to
+    private CompletionWriteBehind start() {
+        return new CompletionWriteBehind(catalogRouter, enrollmentMembership, jdbcTemplate, transactionTemplate,
+                500, 3_600_000, journalDirectory, false);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(journalDirectory)) {
+            // The empty segment each instance opens on startup is left for the next one
+            return files.filter(path -> path.getFileName().toString().startsWith("completions-"))
+                    .filter(path -> path.toFile().length() > 0)
+                    .toList();
+        }
+    }
+
+    private int completedRows() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM subtopic_progress WHERE enrollment_id = ? AND completed", Integer.class,
+                enrollmentId);
+    }
+
+    private int completedCount() {
+        return jdbcTemplate.queryForObject("SELECT completed_count FROM enrollments WHERE id = ?", Integer.class,
+                enrollmentId);
+    }
+}
@@ -0,0 +1,70 @@
+package com.courseplatform.repository;
+
+import com.courseplatform.PostgresIntegrationTest;
+import com.courseplatform.entity.Course;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CourseRepositoryStatementCountTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void courseListTakesOneStatementAsTheCatalogGrows() {
+        Statistics statistics = resetStatistics();
+        int coursesBefore = courseRepository.findAllSummaries().size();
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        List<Course> added = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            added.add(newCourse(4, 3));
+        }
+        courseRepository.saveAll(added);
+
+        statistics = resetStatistics();
+        List<CourseSummary> summaries = courseRepository.findAllSummaries();
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(coursesBefore + 5, summaries.size());
+
+        CourseSummary summary = summaries.stream()
+                .filter(candidate -> candidate.getId().equals(added.get(0).getId()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(4, summary.getTopicCount());
+        assertEquals(12, summary.getSubtopicCount());
+    }
+
+    @Test
+    void courseDetailTakesTheSameFewStatementsWhateverTheCourseSize() {
+        long small = detailStatements(courseRepository.save(newCourse(2, 2)), 4);
+        long large = detailStatements(courseRepository.save(newCourse(60, 8)), 480);
+
+        // The course with its topics, then subtopics in batches of default_batch_fetch_size topics
+        assertTrue(small <= 3, "statements for a small course: " + small);
+        assertEquals(small, large);
+    }
+
+    private long detailStatements(Course course, int expectedSubtopics) {
+        Statistics statistics = resetStatistics();
+        int subtopics = transactionTemplate.execute(status ->
+                courseRepository.findWithTopicsByIdIn(Set.of(course.getId())).stream()
+                        .flatMap(loaded -> loaded.getTopics().stream())
+                        .mapToInt(topic -> topic.getSubtopics().size())
+                        .sum());
+        assertEquals(expectedSubtopics, subtopics);
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,14 @@
+package com.courseplatform.search;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+class IndexSearchPagingTest extends SearchPagingTest {
+
+    @Autowired
+    private SearchIndexUpdater searchIndexUpdater;
+
+    @Override
+    protected void awaitIndexed() {
+        searchIndexUpdater.flush();
+    }
+}
@@ -0,0 +1,113 @@
+package com.courseplatform.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexSegmentTest {
+
+    @Test
+    void matchesTermsOnlyAsPhrase() {
+        IndexSegment segment = segment(
+                "Newton's laws of motion",
+                "Motion follows laws that Newton described");
+
+        assertEquals(List.of("0@0-13x1"), matches(segment, "newton s laws"));
+        assertEquals(List.of("0@9-23x1"), matches(segment, "laws of motion"));
+        assertEquals(List.of(), matches(segment, "newton laws"));
+        assertEquals(List.of("0@0-6x1", "1@25-31x1"), matches(segment, "newton"));
+    }
+
+    @Test
+    void reportsFirstOccurrenceAndCount() {
+        IndexSegment segment = segment("Work is done. Work and energy. Work again.");
+
+        assertEquals(List.of("0@0-4x3"), matches(segment, "work"));
+        assertEquals(List.of("0@14-29x1"), matches(segment, "work and energy"));
+    }
+
+    @Test
+    void expandsOnlyLastTermAsPrefix() {
+        IndexSegment segment = segment("Velocity test", "Velocity and acceleration");
+
+        assertEquals(List.of("0@0-8x1", "1@0-8x1"), matches(segment, "velo"));
+        assertEquals(List.of("0@0-13x1"), matches(segment, "velocity te"));
+        assertEquals(List.of(), matches(segment, "velo test"));
+        assertEquals(List.of(), matches(segment, "velocityx"));
+
+        assertEquals(2, segment.documentFrequency("velo", true));
+        assertEquals(0, segment.documentFrequency("velo", false));
+        assertEquals(2, segment.documentFrequency("velocity", false));
+    }
+
+    @Test
+    void mergesPrefixExpansionsInDocumentOrder() {
+        IndexSegment segment = segment("Waves", "Wavelength", "Wave and wavelength", "Particles");
+
+        assertEquals(List.of("0@0-5x1", "1@0-10x1", "2@0-4x2"), matches(segment, "wav"));
+        assertEquals(List.of("2@0-19x1"), matches(segment, "wave and wave"));
+    }
+
+    @Test
+    void matchesFoldedText() {
+        IndexSegment segment = segment("ﬁnal Ｆｏｒｃｅ");
+
+        assertEquals(List.of("0@0-10x1"), matches(segment, "FINAL FORCE"));
+        assertEquals(List.of("0@0-10x1"), matches(segment, "final fo"));
+    }
+
+    @Test
+    void supersedesDocumentsOfItsUnits() {
+        IndexSegment.Builder builder = new IndexSegment.Builder();
+        builder.supersedeCourse("c1");
+        builder.supersedeTopic("t1");
+        builder.supersedeSubtopic("s1");
+        IndexSegment segment = builder.build();
+
+        assertTrue(segment.supersedes(document(SearchField.COURSE_DESCRIPTION, "c1", null, null)));
+        assertTrue(segment.supersedes(document(SearchField.TOPIC_TITLE, "c1", "t1", null)));
+        assertTrue(segment.supersedes(document(SearchField.CONTENT, "c2", "t2", "s1")));
+        // Only the unit itself: a course change does not hide its topics and subtopics
+        assertFalse(segment.supersedes(document(SearchField.TOPIC_TITLE, "c1", "t2", null)));
+        assertFalse(segment.supersedes(document(SearchField.SUBTOPIC_TITLE, "c1", "t1", "s2")));
+    }
+
+    @Test
+    void skipsEmptyTextAndCountsFieldLengths() {
+        IndexSegment.Builder builder = new IndexSegment.Builder();
+        builder.addDocument(SearchField.COURSE_TITLE, "c1", null, null, null, "Classical Mechanics");
+        builder.addDocument(SearchField.COURSE_DESCRIPTION, "c1", null, null, null, null);
+        builder.addDocument(SearchField.COURSE_DESCRIPTION, "c1", null, null, null, "");
+        IndexSegment segment = builder.build();
+
+        assertEquals(1, segment.documents().size());
+        assertEquals(1, segment.fieldDocuments(SearchField.COURSE_TITLE));
+        assertEquals(2, segment.fieldLength(SearchField.COURSE_TITLE));
+        assertEquals(0, segment.fieldDocuments(SearchField.COURSE_DESCRIPTION));
+    }
+
+    private static IndexSegment segment(String... texts) {
+        IndexSegment.Builder builder = new IndexSegment.Builder();
+        for (int i = 0; i < texts.length; i++) {
+            builder.addDocument(SearchField.CONTENT, "c", "t", "s" + i, "Subtopic " + i, texts[i]);
+        }
+        return builder.build();
+    }
+
+    private static SearchDocument document(SearchField field, String courseId, String topicId, String subtopicId) {
+        return new SearchDocument(0, field, courseId, topicId, subtopicId, null, "text", 1);
+    }
+
+    // Each match as "doc@start-end x occurrences"
+    private static List<String> matches(IndexSegment segment, String query) {
+        List<String> matches = new ArrayList<>();
+        segment.match(Tokenizer.terms(query), (document, start, end, occurrences) ->
+                matches.add(document.getId() + "@" + start + "-" + end + "x" + occurrences));
+        return matches;
+    }
+}
@@ -0,0 +1,12 @@
+package com.courseplatform.search;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "search.mode=postgres")
+class PostgresSearchPagingTest extends SearchPagingTest {
+
+    @Override
+    protected void awaitIndexed() {
+        // The tsvector columns are generated on insert
+    }
+}
@@ -0,0 +1,111 @@
+package com.courseplatform.search;
+
+import com.courseplatform.dto.SearchResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RankedResultCollectorTest {
+
+    private static final int COURSES = 23;
+
+    @Test
+    void cursorPagesVisitEveryCourseOnceWhenScoresTie() {
+        List<String> expected = expectedOrder();
+        List<String> seen = new ArrayList<>();
+
+        SearchCursor cursor = null;
+        do {
+            SearchResponse response = collect(new SearchQuery("q", 0, 4, cursor));
+            response.getResults().forEach(result -> seen.add(result.getCourseId()));
+            cursor = response.getNextCursor() != null ? SearchCursor.decode(response.getNextCursor()) : null;
+        } while (cursor != null);
+
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void numberedPagesMatchCursorPages() {
+        List<String> seen = new ArrayList<>();
+        for (int page = 0; page * 4 < COURSES; page++) {
+            SearchResponse response = collect(new SearchQuery("q", page, 4, null));
+            response.getResults().forEach(result -> seen.add(result.getCourseId()));
+        }
+
+        assertEquals(expectedOrder(), seen);
+        assertEquals(List.of(), collect(new SearchQuery("q", 6, 4, null)).getResults());
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        SearchResponse exact = collect(new SearchQuery("q", 0, COURSES, null));
+        assertEquals(COURSES, exact.getResults().size());
+        assertNull(exact.getNextCursor());
+
+        List<String> order = expectedOrder();
+        SearchCursor last = new SearchCursor(1.0, order.get(order.size() - 1));
+        SearchResponse afterLast = collect(new SearchQuery("q", 0, 4, last));
+        assertEquals(List.of(), afterLast.getResults());
+        assertNull(afterLast.getNextCursor());
+        assertEquals(COURSES, afterLast.getTotalResults());
+    }
+
+    @Test
+    void keepsBestMatchesPerCourse() {
+        RankedResultCollector<String> collector = new RankedResultCollector<>(new SearchQuery("q", 0, 10, null), 2);
+        collector.add("c1", "Course 1", 0.5, "low");
+        collector.add("c1", "Course 1", 2.0, "high");
+        collector.add("c1", "Course 1", 1.0, "middle");
+
+        SearchResponse.SearchResult result = collector.toResponse(RankedResultCollectorTest::match)
+                .getResults().get(0);
+
+        assertEquals(3, result.getTotalMatches());
+        assertEquals(3.5, result.getScore());
+        assertEquals(List.of("high", "middle"),
+                result.getMatches().stream().map(SearchResponse.Match::getSnippet).toList());
+    }
+
+    /**
+     * Scores of 3, 2 or 1 spread over the courses so every score is shared;
+     * each course's score is the sum of equal hits added in a shuffled order.
+     */
+    private static SearchResponse collect(SearchQuery query) {
+        RankedResultCollector<String> collector = new RankedResultCollector<>(query, 10);
+        for (int i = COURSES - 1; i >= 0; i--) {
+            String courseId = "c" + i;
+            int hits = score(i);
+            for (int h = 0; h < hits; h++) {
+                collector.add(courseId, "Course " + i, 1.0, courseId + "-" + h);
+            }
+        }
+        return collector.toResponse(RankedResultCollectorTest::match);
+    }
+
+    private static int score(int course) {
+        return 1 + course % 3;
+    }
+
+    private static List<String> expectedOrder() {
+        List<String> order = new ArrayList<>();
+        for (int score = 3; score >= 1; score--) {
+            List<String> tied = new ArrayList<>();
+            for (int i = 0; i < COURSES; i++) {
+                if (score(i) == score) {
+                    tied.add("c" + i);
+                }
+            }
+            tied.sort(String::compareTo);
+            order.addAll(tied);
+        }
+        return order;
+    }
+
+    private static SearchResponse.Match match(String hit) {
+        return SearchResponse.Match.builder().snippet(hit).build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.courseplatform.search;
+
+import com.courseplatform.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchCursorTest {
+
+    @Test
+    void roundTripsExactScoreAndCourseId() {
+        SearchCursor cursor = new SearchCursor(0.1 + 0.2, "course:with:colons");
+
+        SearchCursor decoded = SearchCursor.decode(cursor.encode());
+
+        assertEquals(0.1 + 0.2, decoded.getScore());
+        assertEquals("course:with:colons", decoded.getCourseId());
+    }
+
+    @Test
+    void ordersByScoreThenCourseId() {
+        SearchCursor cursor = new SearchCursor(2.0, "c5");
+
+        assertTrue(cursor.precedes(1.0, "c1"));
+        assertTrue(cursor.precedes(2.0, "c6"));
+        assertFalse(cursor.precedes(2.0, "c5"));
+        assertFalse(cursor.precedes(2.0, "c4"));
+        assertFalse(cursor.precedes(3.0, "c9"));
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        for (String token : new String[] {
+                "", "not base64!", encoded("no separator"), encoded("zz:c1"), encoded(":c1"),
+                encoded("7ff8000000000000:c1") }) {
+            assertThrows(BadRequestException.class, () -> SearchCursor.decode(token), token);
+        }
+    }
+
+    private static String encoded(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
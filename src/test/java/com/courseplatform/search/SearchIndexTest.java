@@ -0,0 +1,265 @@
+package com.courseplatform.search;
+
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.entity.Topic;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchIndexTest {
+
+    @Test
+    void titleMatchOutranksContentMatch() {
+        SearchIndex index = new SearchIndexBuilder()
+                .addCourse(course("c1", "Momentum", "Collisions and impulse",
+                        topic("c1-t1", "Basics", subtopic("c1-s1", "Impulse", "Force over time"))))
+                .addCourse(course("c2", "Mechanics", "Classical mechanics",
+                        topic("c2-t1", "Dynamics", subtopic("c2-s1", "Collisions", "Momentum is conserved"))))
+                .build(1);
+
+        List<SearchHit> hits = search(index, "momentum");
+
+        assertEquals(2, hits.size());
+        SearchHit title = hit(hits, SearchField.COURSE_TITLE);
+        SearchHit content = hit(hits, SearchField.CONTENT);
+        assertEquals("c1", title.getCourse().getId());
+        assertEquals("c2", content.getCourse().getId());
+        assertTrue(title.getScore() > content.getScore(),
+                "title " + title.getScore() + " vs content " + content.getScore());
+    }
+
+    @Test
+    void fieldWeightsOrderOtherwiseEqualMatches() {
+        SearchIndex index = new SearchIndexBuilder()
+                .addCourse(course("c1", "Energy", "Energy",
+                        topic("c1-t1", "Energy", subtopic("c1-s1", "Energy", "Energy"))))
+                .build(1);
+
+        List<SearchHit> hits = search(index, "energy");
+        hits.sort((a, b) -> Double.compare(b.getScore(), a.getScore()));
+
+        assertEquals(List.of(SearchField.COURSE_TITLE, SearchField.TOPIC_TITLE, SearchField.SUBTOPIC_TITLE,
+                SearchField.COURSE_DESCRIPTION, SearchField.CONTENT),
+                hits.stream().map(hit -> hit.getDocument().getField()).toList());
+    }
+
+    @Test
+    void repeatedTermsScoreHigherInDocumentsOfEqualLength() {
+        SearchIndex index = new SearchIndexBuilder()
+                .addCourse(course("c1", "Waves", null,
+                        topic("c1-t1", "Sound",
+                                subtopic("c1-s1", "Once", "Waves carry energy through air"),
+                                subtopic("c1-s2", "Twice", "Waves reflect and waves interfere"))))
+                .build(1);
+
+        List<SearchHit> content = search(index, "waves").stream()
+                .filter(hit -> hit.getDocument().getField() == SearchField.CONTENT)
+                .toList();
+
+        assertEquals(2, content.size());
+        SearchHit once = content.get(0).getOccurrences() == 1 ? content.get(0) : content.get(1);
+        SearchHit twice = content.get(0).getOccurrences() == 2 ? content.get(0) : content.get(1);
+        assertTrue(twice.getScore() > once.getScore());
+    }
+
+    @Test
+    void matchesPhraseButNotScatteredTerms() {
+        SearchIndex index = new SearchIndexBuilder()
+                .addCourse(course("c1", "Physics", null,
+                        topic("c1-t1", "Laws",
+                                subtopic("c1-s1", "Newton", "The laws of motion were stated by Newton"),
+                                subtopic("c1-s2", "Kepler", "Motion of planets follows laws"))))
+                .build(1);
+
+        List<SearchHit> hits = search(index, "laws of motion");
+
+        assertEquals(1, hits.size());
+        assertEquals("c1-s1", hits.get(0).getDocument().getSubtopicId());
+        assertEquals("laws of motion", hits.get(0).getDocument().getText()
+                .substring(hits.get(0).getMatchStart(), hits.get(0).getMatchEnd()));
+        assertEquals(List.of(), search(index, "motion laws"));
+    }
+
+    @Test
+    void expandsOnlyLastQueryTermAsPrefix() {
+        SearchIndex index = new SearchIndexBuilder()
+                .addCourse(course("c1", "Kinematics", null,
+                        topic("c1-t1", "Velocity vectors", subtopic("c1-s1", "Speed", "Speed is not velocity"))))
+                .build(1);
+
+        assertEquals(2, search(index, "velo").size());
+        assertEquals(1, search(index, "velocity vec").size());
+        assertEquals(0, search(index, "velo vectors").size());
+        assertEquals(0, search(index, "").size());
+    }
+
+    @Test
+    void matchesFoldedQueries() {
+        SearchIndex index = new SearchIndexBuilder()
+                .addCourse(course("c1", "Café Chemistry", "ﬁnal exams", topic("c1-t1", "Ｕｎｉｔｓ")))
+                .build(1);
+
+        assertEquals(SearchField.COURSE_TITLE, search(index, "CAFÉ").get(0).getDocument().getField());
+        assertEquals(SearchField.COURSE_DESCRIPTION, search(index, "final").get(0).getDocument().getField());
+        assertEquals(SearchField.TOPIC_TITLE, search(index, "units").get(0).getDocument().getField());
+    }
+
+    @Test
+    void upsertedSubtopicHidesItsOldDocuments() {
+        Course course = course("c1", "Optics", null,
+                topic("c1-t1", "Light", subtopic("c1-s1", "Refraction", "Light bends through glass")));
+        SearchIndex index = new SearchIndexBuilder().addCourse(course).build(1);
+
+        Subtopic edited = subtopic("c1-s1", "Refraction", "Light bends through water");
+        edited.setTopic(course.getTopics().get(0));
+        SearchIndex next = index.apply(new IndexDelta().upsertSubtopic(edited), 2);
+
+        assertEquals(List.of(), search(next, "glass"));
+        assertEquals(1, search(next, "water").size());
+        assertEquals(1, search(next, "refraction").size());
+        assertEquals(1, search(next, "bends").size());
+        // The published snapshot is left as it was
+        assertEquals(1, search(index, "glass").size());
+        assertEquals(2, next.getSegmentCount());
+    }
+
+    @Test
+    void removedSubtopicDisappears() {
+        SearchIndex index = new SearchIndexBuilder()
+                .addCourse(course("c1", "Optics", null, topic("c1-t1", "Light",
+                        subtopic("c1-s1", "Refraction", "Lenses"),
+                        subtopic("c1-s2", "Reflection", "Mirrors"))))
+                .build(1);
+
+        SearchIndex next = index.apply(new IndexDelta().removeSubtopic("c1-s1"), 2);
+
+        assertEquals(List.of(), search(next, "refraction"));
+        assertEquals(List.of(), search(next, "lenses"));
+        assertEquals(1, search(next, "mirrors").size());
+    }
+
+    @Test
+    void removedTopicHidesItsSubtopics() {
+        SearchIndex index = new SearchIndexBuilder()
+                .addCourse(course("c1", "Optics", null,
+                        topic("c1-t1", "Light", subtopic("c1-s1", "Refraction", "Lenses")),
+                        topic("c1-t2", "Colour", subtopic("c1-s2", "Spectrum", "Prisms"))))
+                .build(1);
+
+        SearchIndex next = index.apply(new IndexDelta().removeTopic("c1-t1"), 2);
+
+        assertEquals(List.of(), search(next, "light"));
+        assertEquals(List.of(), search(next, "refraction"));
+        assertEquals(List.of(), search(next, "lenses"));
+        assertEquals(1, search(next, "prisms").size());
+    }
+
+    @Test
+    void removedCourseHidesEverythingBelowIt() {
+        SearchIndex index = new SearchIndexBuilder()
+                .addCourse(course("c1", "Optics", "Light and lenses",
+                        topic("c1-t1", "Light", subtopic("c1-s1", "Refraction", "Lenses"))))
+                .addCourse(course("c2", "Acoustics", "Sound and lenses",
+                        topic("c2-t1", "Sound", subtopic("c2-s1", "Echoes", "Reflections"))))
+                .build(1);
+
+        SearchIndex next = index.apply(new IndexDelta().removeCourse("c1"), 2);
+
+        assertEquals(List.of(), search(next, "optics"));
+        assertEquals(List.of(), search(next, "light"));
+        assertEquals(List.of(), search(next, "refraction"));
+        List<SearchHit> lenses = search(next, "lenses");
+        assertEquals(1, lenses.size());
+        assertEquals("c2", lenses.get(0).getCourse().getId());
+    }
+
+    @Test
+    void mergesSmallTailAndKeepsOnlyLiveDocuments() {
+        Topic topic = topic("c1-t1", "Mechanics");
+        for (int i = 0; i < 20; i++) {
+            topic.getSubtopics().add(subtopic("c1-s" + i, "Subtopic " + i, "Unchanged text " + i));
+            topic.getSubtopics().get(i).setTopic(topic);
+        }
+        Course course = course("c1", "Physics", "Motion", topic);
+        SearchIndex index = new SearchIndexBuilder().addCourse(course).build(1);
+        int baseDocuments = index.getDocumentCount();
+
+        // Each edit adds a two-document segment; the tail stays small next to the base
+        for (int version = 2; version <= SearchIndex.MAX_SEGMENTS + 1; version++) {
+            Subtopic edited = subtopic("c1-s0", "Subtopic 0", "Revision r" + version);
+            edited.setTopic(topic);
+            index = index.apply(new IndexDelta().upsertSubtopic(edited), version);
+        }
+
+        assertEquals(2, index.getSegmentCount());
+        assertEquals(baseDocuments + 2, index.getDocumentCount());
+        assertEquals(List.of(), search(index, "r8"));
+        assertEquals(1, search(index, "r" + (SearchIndex.MAX_SEGMENTS + 1)).size());
+        // The base still holds the original document, which the merged tail must keep hiding
+        assertEquals(19, search(index, "unchanged").size());
+        assertEquals(1, search(index, "revision").size());
+    }
+
+    @Test
+    void compactsIntoOneSegmentWhenTailGrowsLarge() {
+        Topic topic = topic("c1-t1", "Mechanics", subtopic("c1-s0", "Start", "Original"));
+        SearchIndex index = new SearchIndexBuilder()
+                .addCourse(course("c1", "Physics", "Motion", topic))
+                .addCourse(course("c2", "Chemistry", "Atoms",
+                        topic("c2-t1", "Bonds", subtopic("c2-s1", "Ionic", "Salt"))))
+                .build(1);
+
+        for (int version = 2; version < SearchIndex.MAX_SEGMENTS; version++) {
+            Subtopic added = subtopic("c1-s" + version, "Added " + version, "Extra text");
+            added.setTopic(topic);
+            index = index.apply(new IndexDelta().upsertSubtopic(added), version);
+        }
+        index = index.apply(new IndexDelta().removeSubtopic("c1-s0"), SearchIndex.MAX_SEGMENTS);
+        index = index.apply(new IndexDelta().removeCourse("c2"), SearchIndex.MAX_SEGMENTS + 1);
+
+        assertEquals(1, index.getSegmentCount());
+        // Course title, description, topic title and two documents per added subtopic
+        assertEquals(3 + 2 * (SearchIndex.MAX_SEGMENTS - 2), index.getDocumentCount());
+        assertEquals(List.of(), search(index, "original"));
+        assertEquals(List.of(), search(index, "salt"));
+        assertEquals(SearchIndex.MAX_SEGMENTS - 2, search(index, "extra text").size());
+        assertEquals(SearchIndex.MAX_SEGMENTS + 1, index.getVersion());
+    }
+
+    static List<SearchHit> search(SearchIndex index, String query) {
+        List<SearchHit> hits = new ArrayList<>();
+        index.search(query, hits::add);
+        return hits;
+    }
+
+    private static SearchHit hit(List<SearchHit> hits, SearchField field) {
+        return hits.stream().filter(hit -> hit.getDocument().getField() == field).findFirst().orElseThrow();
+    }
+
+    static Course course(String id, String title, String description, Topic... topics) {
+        Course course = Course.builder().id(id).title(title).description(description).build();
+        for (Topic topic : topics) {
+            topic.setCourse(course);
+            course.getTopics().add(topic);
+        }
+        return course;
+    }
+
+    static Topic topic(String id, String title, Subtopic... subtopics) {
+        Topic topic = Topic.builder().id(id).title(title).build();
+        for (Subtopic subtopic : subtopics) {
+            subtopic.setTopic(topic);
+            topic.getSubtopics().add(subtopic);
+        }
+        return topic;
+    }
+
+    static Subtopic subtopic(String id, String title, String content) {
+        return Subtopic.builder().id(id).title(title).content(content).build();
+    }
+}
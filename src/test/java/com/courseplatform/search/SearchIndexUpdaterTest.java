@@ -0,0 +1,135 @@
+package com.courseplatform.search;
+
+import com.courseplatform.catalog.CatalogChangedEvent;
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.entity.Topic;
+import com.courseplatform.repository.CourseRepository;
+import com.courseplatform.repository.SubtopicRepository;
+import com.courseplatform.repository.TopicRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.courseplatform.search.SearchIndexTest.course;
+import static com.courseplatform.search.SearchIndexTest.search;
+import static com.courseplatform.search.SearchIndexTest.subtopic;
+import static com.courseplatform.search.SearchIndexTest.topic;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives the updater with stubbed repositories, so a flush can be made to
+ * fail and the retry observed.
+ */
+class SearchIndexUpdaterTest {
+
+    private final CourseRepository courseRepository = mock(CourseRepository.class);
+    private final TopicRepository topicRepository = mock(TopicRepository.class);
+    private final SubtopicRepository subtopicRepository = mock(SubtopicRepository.class);
+
+    private SearchIndexManager searchIndexManager;
+    private SearchIndexUpdater updater;
+    private Topic topic;
+
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        searchIndexManager = new SearchIndexManager(courseRepository);
+        updater = new SearchIndexUpdater(searchIndexManager, courseRepository, topicRepository, subtopicRepository,
+                transactionManager);
+
+        topic = topic("c1-t1", "Light", subtopic("c1-s1", "Refraction", "Light bends through glass"));
+        Course course = course("c1", "Optics", null, topic);
+        searchIndexManager.apply(new IndexDelta().upsertCourse(course).upsertTopic(topic)
+                .upsertSubtopic(topic.getSubtopics().get(0)));
+    }
+
+    @Test
+    void appliesChangedSubtopic() {
+        Subtopic edited = subtopic("c1-s1", "Refraction", "Light bends through water");
+        edited.setTopic(topic);
+        when(subtopicRepository.findAllById(Set.of("c1-s1"))).thenReturn(List.of(edited));
+
+        updater.onCatalogChanged(subtopicChanged("c1-s1"));
+        updater.flush();
+
+        assertEquals(List.of(), search(searchIndexManager.current(), "glass"));
+        assertEquals(1, search(searchIndexManager.current(), "water").size());
+    }
+
+    @Test
+    void deletedRowsAreRemovedFromIndex() {
+        when(topicRepository.findAllById(Set.of("c1-t1"))).thenReturn(List.of());
+
+        updater.onCatalogChanged(new CatalogChangedEvent(Set.of(), Set.of("c1-t1"), Set.of()));
+        updater.flush();
+
+        assertEquals(List.of(), search(searchIndexManager.current(), "light"));
+        assertEquals(List.of(), search(searchIndexManager.current(), "refraction"));
+        assertEquals(1, search(searchIndexManager.current(), "optics").size());
+    }
+
+    @Test
+    void failedFlushRequeuesItsChanges() {
+        Subtopic edited = subtopic("c1-s1", "Refraction", "Light bends through water");
+        edited.setTopic(topic);
+        when(subtopicRepository.findAllById(Set.of("c1-s1")))
+                .thenThrow(new QueryTimeoutException("database unavailable"))
+                .thenReturn(List.of(edited));
+        long version = searchIndexManager.current().getVersion();
+
+        updater.onCatalogChanged(subtopicChanged("c1-s1"));
+        updater.flush();
+
+        assertEquals(version, searchIndexManager.current().getVersion());
+        assertEquals(1, search(searchIndexManager.current(), "glass").size());
+
+        updater.flush();
+
+        assertEquals(version + 1, searchIndexManager.current().getVersion());
+        assertEquals(List.of(), search(searchIndexManager.current(), "glass"));
+        assertEquals(1, search(searchIndexManager.current(), "water").size());
+        verify(subtopicRepository, times(2)).findAllById(Set.of("c1-s1"));
+    }
+
+    @Test
+    void requeuedChangesMergeWithLaterOnes() {
+        when(subtopicRepository.findAllById(any()))
+                .thenThrow(new QueryTimeoutException("database unavailable"))
+                .thenReturn(List.of());
+
+        updater.onCatalogChanged(subtopicChanged("c1-s1"));
+        updater.flush();
+        updater.onCatalogChanged(subtopicChanged("c1-s2"));
+        updater.flush();
+
+        verify(subtopicRepository).findAllById(Set.of("c1-s1", "c1-s2"));
+        assertEquals(List.of(), search(searchIndexManager.current(), "refraction"));
+    }
+
+    @Test
+    void emptyQueueLeavesIndexAlone() {
+        long version = searchIndexManager.current().getVersion();
+
+        updater.flush();
+        searchIndexManager.apply(new IndexDelta());
+
+        assertEquals(version, searchIndexManager.current().getVersion());
+    }
+
+    private static CatalogChangedEvent subtopicChanged(String subtopicId) {
+        return new CatalogChangedEvent(Set.of(), Set.of(), Set.of(subtopicId));
+    }
+}
@@ -0,0 +1,157 @@
+package com.courseplatform.search;
+
+import com.courseplatform.PostgresIntegrationTest;
+import com.courseplatform.dto.SearchResponse;
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.entity.Topic;
+import com.courseplatform.repository.CourseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pages through courses whose scores tie, with cursors and with page numbers,
+ * against the active search backend. Every course is made up of the same
+ * text around a word no other test uses; half also have it in a topic title,
+ * which gives two tiers of tied scores.
+ */
+@AutoConfigureMockMvc
+abstract class SearchPagingTest extends PostgresIntegrationTest {
+
+    private static final int COURSES = 11;
+    private static final int PAGE_SIZE = 3;
+
+    @Autowired
+    private SearchBackend searchBackend;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private String word;
+    private List<String> expectedOrder;
+
+    /**
+     * Makes the committed courses searchable.
+     */
+    protected abstract void awaitIndexed();
+
+    @BeforeEach
+    void setUp() {
+        word = randomWord();
+        List<String> higher = new ArrayList<>();
+        List<String> lower = new ArrayList<>();
+        for (int i = 0; i < COURSES; i++) {
+            Course course = courseRepository.save(course(i % 2 == 0));
+            (i % 2 == 0 ? higher : lower).add(course.getId());
+        }
+        awaitIndexed();
+
+        higher.sort(String::compareTo);
+        lower.sort(String::compareTo);
+        expectedOrder = new ArrayList<>(higher);
+        expectedOrder.addAll(lower);
+    }
+
+    @Test
+    void cursorPagesHaveNoDuplicatesOrGaps() {
+        List<String> seen = new ArrayList<>();
+        SearchCursor cursor = null;
+        int pages = 0;
+        do {
+            SearchResponse response = searchBackend.search(new SearchQuery(word, 0, PAGE_SIZE, cursor));
+            response.getResults().forEach(result -> seen.add(result.getCourseId()));
+            assertEquals(COURSES, response.getTotalResults());
+            cursor = response.getNextCursor() != null ? SearchCursor.decode(response.getNextCursor()) : null;
+            pages++;
+        } while (cursor != null && pages <= COURSES);
+
+        assertEquals(expectedOrder, seen);
+    }
+
+    @Test
+    void numberedPagesHaveNoDuplicatesOrGaps() {
+        List<String> seen = new ArrayList<>();
+        for (int page = 0; page * PAGE_SIZE < COURSES; page++) {
+            SearchResponse response = searchBackend.search(new SearchQuery(word, page, PAGE_SIZE, null));
+            response.getResults().forEach(result -> seen.add(result.getCourseId()));
+        }
+
+        assertEquals(expectedOrder, seen);
+    }
+
+    @Test
+    void tiedScoresAreEqual() {
+        SearchResponse response = searchBackend.search(new SearchQuery(word, 0, COURSES, null));
+
+        List<SearchResponse.SearchResult> results = response.getResults();
+        assertEquals(COURSES, results.size());
+        assertNull(response.getNextCursor());
+        for (int i = 1; i < results.size(); i++) {
+            boolean sameTier = (i < (COURSES + 1) / 2) == (i - 1 < (COURSES + 1) / 2);
+            if (sameTier) {
+                assertEquals(results.get(i - 1).getScore(), results.get(i).getScore(), "result " + i);
+            }
+        }
+    }
+
+    @Test
+    void malformedCursorIsBadRequest() throws Exception {
+        String nanScore = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("7ff8000000000000:c1".getBytes(StandardCharsets.UTF_8));
+        for (String cursor : new String[] { "garbage!", "Z2FyYmFnZQ", nanScore }) {
+            mockMvc.perform(get("/api/search").param("q", word).param("cursor", cursor))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Invalid search cursor"));
+        }
+    }
+
+    private Course course(boolean inTopicTitle) {
+        String courseId = "test-" + UUID.randomUUID();
+        Course course = Course.builder()
+                .id(courseId)
+                .title("Course " + word)
+                .description("Generated for a paging test")
+                .build();
+        Topic topic = Topic.builder()
+                .id(courseId + "-t0")
+                .title(inTopicTitle ? "Topic " + word : "Topic")
+                .course(course)
+                .build();
+        topic.getSubtopics().add(Subtopic.builder()
+                .id(topic.getId() + "-s0")
+                .title("Subtopic")
+                .content("All about " + word + " and more")
+                .topic(topic)
+                .build());
+        course.getTopics().add(topic);
+        return course;
+    }
+
+    // Letters only, so no backend splits or stems it differently
+    private static String randomWord() {
+        StringBuilder word = new StringBuilder("qz");
+        for (int i = 0; i < 10; i++) {
+            word.append((char) ('a' + ThreadLocalRandom.current().nextInt(26)));
+        }
+        return word.toString();
+    }
+}
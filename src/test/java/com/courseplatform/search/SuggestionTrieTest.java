@@ -0,0 +1,115 @@
+package com.courseplatform.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuggestionTrieTest {
+
+    @Test
+    void splitsEdgesWhereTitlesDiverge() {
+        SuggestionTrie trie = SuggestionTrie.build(List.of(
+                subtopic("s1", "Motion"),
+                subtopic("s2", "Momentum"),
+                subtopic("s3", "Mass")));
+
+        assertEquals(List.of("s3", "s1", "s2"), ids(trie.suggest("m", 10)));
+        assertEquals(List.of("s1", "s2"), ids(trie.suggest("mo", 10)));
+        assertEquals(List.of("s1"), ids(trie.suggest("mot", 10)));
+        assertEquals(List.of("s2"), ids(trie.suggest("momen", 10)));
+        assertEquals(List.of("s2"), ids(trie.suggest("momentum", 10)));
+        assertEquals(List.of(), ids(trie.suggest("momentus", 10)));
+        assertEquals(List.of(), ids(trie.suggest("x", 10)));
+    }
+
+    @Test
+    void completesFromEveryWordStart() {
+        SuggestionTrie trie = SuggestionTrie.build(List.of(
+                course("c1", "Newton's Laws of Motion"),
+                course("c2", "Laws of Thermodynamics")));
+
+        assertEquals(List.of("c1"), ids(trie.suggest("newton", 10)));
+        assertEquals(List.of("c1"), ids(trie.suggest("laws of m", 10)));
+        assertEquals(List.of("c2", "c1"), ids(trie.suggest("laws", 10)));
+        assertEquals(List.of("c2", "c1"), ids(trie.suggest("of", 10)));
+    }
+
+    @Test
+    void listsSuggestionOnceWhenSeveralWordsMatch() {
+        SuggestionTrie trie = SuggestionTrie.build(List.of(subtopic("s1", "Work and Work Energy")));
+
+        assertEquals(List.of("s1"), ids(trie.suggest("work", 10)));
+    }
+
+    @Test
+    void ranksByTypeThenLength() {
+        SuggestionTrie trie = SuggestionTrie.build(List.of(
+                subtopic("s1", "Energy"),
+                topic("t1", "Energy Conservation"),
+                topic("t2", "Energy"),
+                course("c1", "Energy and Power Systems")));
+
+        assertEquals(List.of("c1", "t2", "t1", "s1"), ids(trie.suggest("energy", 10)));
+        assertEquals(List.of("c1", "t2"), ids(trie.suggest("energy", 2)));
+    }
+
+    @Test
+    void keepsOnlyBestSuggestionsPerPrefix() {
+        List<Suggestion> candidates = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            // Longer titles rank lower, so s0 is best and s24 worst
+            candidates.add(subtopic("s" + i, "Wave" + "s".repeat(i)));
+        }
+        SuggestionTrie trie = SuggestionTrie.build(candidates);
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < SuggestionTrie.MAX_SUGGESTIONS; i++) {
+            expected.add("s" + i);
+        }
+        assertEquals(expected, ids(trie.suggest("wa", 100)));
+        assertEquals(List.of("s5", "s6", "s7"), ids(trie.suggest("wavesssss", 3)));
+    }
+
+    @Test
+    void foldsCaseAndCompatibilityCharacters() {
+        SuggestionTrie trie = SuggestionTrie.build(List.of(
+                course("c1", "Ｆｕｌｌｗｉｄｔｈ Physics"),
+                course("c2", "ﬁnance Basics"),
+                course("c3", "Café Chemistry")));
+
+        assertEquals(List.of("c1"), ids(trie.suggest("full", 10)));
+        assertEquals(List.of("c1"), ids(trie.suggest("ＦＵＬＬ", 10)));
+        assertEquals(List.of("c2"), ids(trie.suggest("Fin", 10)));
+        assertEquals(List.of("c3"), ids(trie.suggest("CAFÉ", 10)));
+        assertEquals(List.of("c3"), ids(trie.suggest("  café ch", 10)));
+    }
+
+    @Test
+    void blankPrefixSuggestsNothing() {
+        SuggestionTrie trie = SuggestionTrie.build(List.of(course("c1", "Physics")));
+
+        assertTrue(trie.suggest("", 10).isEmpty());
+        assertTrue(trie.suggest("   ", 10).isEmpty());
+        assertTrue(SuggestionTrie.empty().suggest("physics", 10).isEmpty());
+    }
+
+    private static Suggestion course(String id, String title) {
+        return new Suggestion(Suggestion.COURSE, id, title, id);
+    }
+
+    private static Suggestion topic(String id, String title) {
+        return new Suggestion(Suggestion.TOPIC, id, title, "c");
+    }
+
+    private static Suggestion subtopic(String id, String title) {
+        return new Suggestion(Suggestion.SUBTOPIC, id, title, "c");
+    }
+
+    private static List<String> ids(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::getId).toList();
+    }
+}
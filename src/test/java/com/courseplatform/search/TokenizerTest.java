@@ -0,0 +1,40 @@
+package com.courseplatform.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenizerTest {
+
+    @Test
+    void reportsPositionsAndOffsetsInOriginalText() {
+        String text = "  Newton's LAWS, of-motion!";
+        List<String> tokens = new ArrayList<>();
+
+        int count = Tokenizer.tokenize(text, (term, position, start, end) ->
+                tokens.add(position + ":" + term + ":" + text.substring(start, end)));
+
+        assertEquals(5, count);
+        assertEquals(List.of("0:newton:Newton", "1:s:s", "2:laws:LAWS", "3:of:of", "4:motion:motion"),
+                tokens.subList(0, 5));
+    }
+
+    @Test
+    void foldsCompatibilityCharactersAndCase() {
+        assertEquals(List.of("final", "force"), Tokenizer.terms("ﬁnal Ｆｏｒｃｅ"));
+        assertEquals(List.of("café"), Tokenizer.terms("CAFÉ"));
+        // A decomposed accent stays part of its term and folds to the composed form
+        assertEquals(List.of("café", "au", "lait"), Tokenizer.terms("cafe\u0301 au lait"));
+        assertEquals(List.of("h2o", "100"), Tokenizer.terms("H2O: 100%"));
+    }
+
+    @Test
+    void handlesMissingAndEmptyText() {
+        assertEquals(0, Tokenizer.tokenize(null, (term, position, start, end) -> { }));
+        assertEquals(List.of(), Tokenizer.terms(""));
+        assertEquals(List.of(), Tokenizer.terms(" -- "));
+    }
+}
@@ -0,0 +1,178 @@
+package com.courseplatform.service;
+
+import com.courseplatform.PostgresIntegrationTest;
+import com.courseplatform.dto.BulkCompletionResponse;
+import com.courseplatform.entity.Course;
+import com.courseplatform.entity.Subtopic;
+import com.courseplatform.entity.User;
+import com.courseplatform.exception.DuplicateEnrollmentException;
+import com.courseplatform.repository.CourseRepository;
+import com.courseplatform.repository.UserRepository;
+import com.courseplatform.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Races many callers of the same user through the enroll and complete
+ * upserts and checks that every row and counter is written exactly once.
+ */
+class UpsertConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private SubtopicProgressService subtopicProgressService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ExecutorService executor;
+    private User user;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+        user = userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@example.com")
+                .password("not-a-hash")
+                .build());
+        course = courseRepository.save(newCourse(4, 10));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void parallelEnrollmentsCreateOneEnrollment() throws Exception {
+        List<Callable<Long>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            tasks.add(() -> enrollmentService.enrollInCourse(course.getId()).getEnrollmentId());
+        }
+
+        int enrolled = 0;
+        for (Future<Long> result : race(tasks)) {
+            try {
+                result.get();
+                enrolled++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(DuplicateEnrollmentException.class, e.getCause());
+            }
+        }
+
+        assertEquals(1, enrolled);
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM enrollments WHERE user_id = ? AND course_id = ?", Integer.class,
+                user.getId(), course.getId()));
+    }
+
+    @Test
+    void parallelCompletionsCountEachSubtopicOnce() throws Exception {
+        runAsUser(() -> enrollmentService.enrollInCourse(course.getId()));
+        List<String> subtopicIds = course.getTopics().stream()
+                .flatMap(topic -> topic.getSubtopics().stream())
+                .map(Subtopic::getId)
+                .toList();
+
+        // Half the callers complete one subtopic at a time, the other half in bulk, each in its own order
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            List<String> order = new ArrayList<>(subtopicIds);
+            Collections.shuffle(order);
+            if (i % 2 == 0) {
+                tasks.add(() -> {
+                    order.forEach(subtopicProgressService::markSubtopicComplete);
+                    return 0;
+                });
+            } else {
+                tasks.add(() -> {
+                    BulkCompletionResponse response = subtopicProgressService.markSubtopicsComplete(order);
+                    return response.getCompleted();
+                });
+            }
+        }
+
+        int completedInBulk = 0;
+        for (Future<Integer> result : race(tasks)) {
+            completedInBulk += result.get();
+        }
+
+        assertTrue(completedInBulk <= subtopicIds.size(), "bulk completions reported: " + completedInBulk);
+        assertEquals(subtopicIds.size(), jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM subtopic_progress WHERE user_id = ? AND completed", Integer.class,
+                user.getId()));
+        assertEquals(subtopicIds.size(), jdbcTemplate.queryForObject(
+                "SELECT completed_count FROM enrollments WHERE user_id = ? AND course_id = ?", Integer.class,
+                user.getId(), course.getId()));
+    }
+
+    /**
+     * Starts all tasks at once, each authenticated as the test user.
+     */
+    private <T> List<Future<T>> race(List<Callable<T>> tasks) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> results = new ArrayList<>();
+        for (Callable<T> task : tasks) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return runAsUser(task);
+            }));
+        }
+        start.countDown();
+        for (Future<T> result : results) {
+            try {
+                result.get(60, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                // Inspected by the caller
+            } catch (TimeoutException e) {
+                throw new AssertionError("Task did not finish", e);
+            }
+        }
+        return results;
+    }
+
+    private <T> T runAsUser(Callable<T> task) throws Exception {
+        AuthenticatedUser principal = new AuthenticatedUser(user.getId(), user.getEmail(), user.getTokenVersion());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+        try {
+            return task.call();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}